@@ -0,0 +1,35 @@
+#!/usr/bin/env sh
+# Starts the JVM jar and the native executable one after the other and prints the time until the first successful
+# GET /v1/cars together with the resident set size at that moment. Linux only (reads /proc).
+set -eu
+
+JAR=${JAR:-build/libs/spring-kata-0.0.1-SNAPSHOT.jar}
+NATIVE=${NATIVE:-build/native/nativeCompile/spring-kata}
+PORT=${PORT:-18080}
+
+now_ms() {
+	echo $(($(date +%s%N) / 1000000))
+}
+
+measure() {
+	name=$1
+	shift
+	started=$(now_ms)
+	"$@" --server.port="$PORT" >/dev/null 2>&1 &
+	pid=$!
+	until curl -fs "http://localhost:$PORT/v1/cars" >/dev/null 2>&1; do
+		if ! kill -0 "$pid" 2>/dev/null; then
+			echo "$name exited before serving GET /v1/cars" >&2
+			return 1
+		fi
+		sleep 0.01
+	done
+	elapsed=$(($(now_ms) - started))
+	rss=$(awk '/^VmRSS/ { print $2 }' "/proc/$pid/status")
+	kill "$pid"
+	wait "$pid" 2>/dev/null || true
+	printf '%-6s first GET /v1/cars after %6d ms, RSS %8d KiB\n' "$name" "$elapsed" "$rss"
+}
+
+measure jvm java -jar "$JAR"
+measure native "$NATIVE"
@@ -0,0 +1,70 @@
+package com.example.springkata.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.example.springkata.v1.domain.CarView;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+
+// Raw and gzipped payload sizes are logged once per trial.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class CarFormatBenchmark {
+    private static final Logger log = LoggerFactory.getLogger(CarFormatBenchmark.class);
+    static final int SIZE = 10_000;
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    @Param({"", "id,make"})
+    String fields;
+
+    ObjectMapper objectMapper;
+    List<?> body;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = switch (format) {
+            case "cbor" -> CBORMapper.builder().findAndAddModules().build();
+            case "smile" -> SmileMapper.builder().findAndAddModules().build();
+            default -> JsonMapper.builder().findAndAddModules().build();
+        };
+        Date now = new Date();
+        List<CarView> cars = new ArrayList<>(SIZE);
+        for (long i = 1; i <= SIZE; i++) {
+            cars.add(new CarView(i, "Toyota", "Hilux " + i, 0L, now, now));
+        }
+        Set<String> selected = Set.of(fields.split(","));
+        body = fields.isEmpty() ? cars : cars.stream().map(car -> car.select(selected)).toList();
+        byte[] payload = serialize();
+        log.info("{} fields=[{}]: {} bytes, {} bytes gzipped", format, fields, payload.length, gzip(payload).length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(body);
+    }
+
+    private static byte[] gzip(byte[] payload) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(payload);
+        }
+        return compressed.toByteArray();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.springkata.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.springkata.SpringKataApplication;
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarView;
+import com.example.springkata.v1.repository.CarRepository;
+import com.example.springkata.v1.service.CarBatchService;
+
+import jakarta.persistence.EntityManager;
+
+// Run with -prof gc to compare allocation as well.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+public class CarPageBenchmark {
+    static final int ROWS = 50_000;
+    static final String PAGE_OF_ENTITIES = "select c from Car c where c.id > :after order by c.id";
+
+    @Param({"100", "1000", "10000"})
+    int limit;
+
+    ConfigurableApplicationContext context;
+    CarRepository carRepository;
+    EntityManager entityManager;
+    TransactionTemplate transactionTemplate;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SpringKataApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        carRepository = context.getBean(CarRepository.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        List<Car> cars = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            cars.add(Car.builder()
+                    .make("Make " + (i % 50))
+                    .model("Model " + i)
+                    .build());
+        }
+        context.getBean(CarBatchService.class).saveAll(cars);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Car> pageOfManagedEntities() {
+        return transactionTemplate.execute(status -> entityManager.createQuery(PAGE_OF_ENTITIES, Car.class)
+                .setParameter("after", 0L)
+                .setMaxResults(limit)
+                .getResultList());
+    }
+
+    @Benchmark
+    public List<CarView> pageOfProjections() {
+        return transactionTemplate.execute(status -> carRepository.findViewsAfter(0L, PageRequest.ofSize(limit)));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.springkata.benchmark;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarSearchHit;
+import com.example.springkata.v1.service.CarSearchServiceImpl;
+
+// SampleTime reports the p99 the search endpoint has to stay under.
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CarSearchBenchmark {
+    static final int ROWS = 1_000_000;
+    static final int MAKES = 200;
+    static final int QUERIES = 1024;
+    static final String[] SYLLABLES = {
+            "ka", "ro", "mi", "ten", "zu", "la", "vor", "qui", "sa", "no", "be", "tri", "an", "el", "gor", "pi", "da", "ve",
+            "lo", "mar", "cor", "ti", "us", "ra", "gen", "sol", "ix", "ne", "ba", "fi", "ste", "ol", "wa", "hu", "ze", "cro",
+            "ma", "li", "ar", "po"
+    };
+
+    @Param({"1000", "50000"})
+    int vocabularySize;
+
+    @Param({"prefix", "typo", "twoTokens"})
+    String queryKind;
+
+    CarSearchServiceImpl carSearchService;
+    String[] queries;
+    int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<String> makes = words(random, MAKES);
+        List<String> models = words(random, vocabularySize);
+        carSearchService = new CarSearchServiceImpl(null);
+        for (int i = 1; i <= ROWS; i++) {
+            carSearchService.index(Car.builder()
+                    .id((long) i)
+                    .make(makes.get(i % makes.size()))
+                    .model(models.get(random.nextInt(models.size())))
+                    .build());
+        }
+        queries = new String[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            String model = models.get(random.nextInt(models.size()));
+            queries[i] = switch (queryKind) {
+                case "prefix" -> model.substring(0, Math.min(4, model.length()));
+                case "typo" -> typo(random, model);
+                default -> makes.get(random.nextInt(makes.size())) + " " + typo(random, model);
+            };
+        }
+    }
+
+    @Benchmark
+    public List<CarSearchHit> search() {
+        next = (next + 1) % QUERIES;
+        return carSearchService.search(queries[next], 20);
+    }
+
+    private static List<String> words(Random random, int count) {
+        Set<String> words = new LinkedHashSet<>();
+        while (words.size() < count) {
+            StringBuilder word = new StringBuilder();
+            int syllables = 2 + random.nextInt(3);
+            for (int i = 0; i < syllables; i++) {
+                word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            words.add(word.toString());
+        }
+        return new ArrayList<>(words);
+    }
+
+    private static String typo(Random random, String word) {
+        int position = random.nextInt(word.length());
+        char replacement = (char) ('a' + random.nextInt(26));
+        return word.substring(0, position) + replacement + word.substring(position + 1);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.springkata.benchmark;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+import com.example.springkata.v1.domain.Car;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CarSerializationBenchmark {
+    @Param({"1", "100", "10000"})
+    int size;
+
+    ObjectMapper objectMapper;
+    List<Car> cars;
+    Car car;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .build();
+        Date now = new Date();
+        cars = new ArrayList<>(size);
+        for (long i = 0; i < size; i++) {
+            cars.add(Car.builder()
+                    .id(i)
+                    .make("Toyota")
+                    .model("Hilux " + i)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .build());
+        }
+        car = cars.get(0);
+    }
+
+    @Benchmark
+    public byte[] serializeCarList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cars);
+    }
+
+    @Benchmark
+    public Car builderCopy() {
+        return Car.builder()
+                .make(car.getMake())
+                .model(car.getModel())
+                .build();
+    }
+}
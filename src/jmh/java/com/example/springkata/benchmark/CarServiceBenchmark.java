@@ -0,0 +1,107 @@
+package com.example.springkata.benchmark;
+
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_ID;
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_MAKE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.springkata.SpringKataApplication;
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.service.CarBatchService;
+import com.example.springkata.v1.service.CarService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CarServiceBenchmark {
+    static final String BENCHMARK_MAKE = "Make 1";
+
+    @Param({"100", "10000"})
+    int rows;
+
+    ConfigurableApplicationContext context;
+    CarService carService;
+    Cache carsById;
+    Cache carsByMake;
+    org.hibernate.Cache secondLevelCache;
+    List<Long> ids;
+    Car template;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(SpringKataApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        carService = context.getBean(CarService.class);
+        CacheManager cacheManager = context.getBean(CacheManager.class);
+        carsById = cacheManager.getCache(CARS_BY_ID);
+        carsByMake = cacheManager.getCache(CARS_BY_MAKE);
+        secondLevelCache = context.getBean(EntityManagerFactory.class).unwrap(SessionFactory.class).getCache();
+
+        List<Car> cars = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            cars.add(Car.builder()
+                    .make("Make " + (i % 50))
+                    .model("Model " + i)
+                    .build());
+        }
+        context.getBean(CarBatchService.class).saveAll(cars);
+        ids = carService.findAll(null).stream().map(Car::getId).toList();
+        template = Car.builder()
+                .make("Toyota")
+                .model("Hilux")
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Car> findAllByMakeFromDatabase() {
+        carsByMake.clear();
+        return carService.findAll(BENCHMARK_MAKE);
+    }
+
+    @Benchmark
+    public List<Car> findAllByMakeFromCache() {
+        return carService.findAll(BENCHMARK_MAKE);
+    }
+
+    @Benchmark
+    public Car findByIdFromDatabase() {
+        Long id = randomId();
+        carsById.clear();
+        // the second-level cache would otherwise answer in place of the database
+        secondLevelCache.evictEntityData(Car.class, id);
+        return carService.findById(id);
+    }
+
+    @Benchmark
+    public Car findByIdFromCache() {
+        return carService.findById(randomId());
+    }
+
+    @Benchmark
+    public Car save() {
+        return carService.save(template);
+    }
+
+    private Long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.springkata.bootstrap;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.repository.CarJdbcRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CarDataGenerator {
+    private static final int PROGRESS_STEPS = 10;
+
+    private final CarJdbcRepository carJdbcRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public long generate(SeedProperties properties) {
+        Assert.isTrue(properties.getRows() > 0, "Number of rows to generate must be positive!");
+        Assert.isTrue(properties.getBatchSize() > 0, "Batch size must be positive!");
+        Assert.notEmpty(properties.getMakes(), "At least one make is needed to generate cars!");
+        List<SeedProperties.MakeShare> makes = properties.getMakes();
+        int[] cumulativeWeights = new int[makes.size()];
+        int totalWeight = 0;
+        for (int i = 0; i < makes.size(); i++) {
+            Assert.notEmpty(makes.get(i).getModels(), "Make " + makes.get(i).getMake() + " needs at least one model!");
+            totalWeight += makes.get(i).getWeight();
+            cumulativeWeights[i] = totalWeight;
+        }
+        Assert.isTrue(totalWeight > 0, "Make weights must add up to a positive number!");
+
+        Random random = new Random(properties.getRandomSeed());
+        long rows = properties.getRows();
+        long progressStep = Math.max(1, rows / PROGRESS_STEPS);
+        long nextProgress = progressStep;
+        long startedAt = System.nanoTime();
+        List<Car> batch = new ArrayList<>(properties.getBatchSize());
+        long inserted = 0;
+        while (inserted < rows) {
+            int batchRows = (int) Math.min(properties.getBatchSize(), rows - inserted);
+            Date now = new Date();
+            List<Long> ids = carJdbcRepository.nextIds(batchRows);
+            for (int i = 0; i < batchRows; i++) {
+                SeedProperties.MakeShare share = pick(makes, cumulativeWeights, random.nextInt(totalWeight));
+                String model = share.getModels().get(random.nextInt(share.getModels().size()));
+                batch.add(Car.builder()
+                        .id(ids.get(i))
+                        .make(share.getMake())
+                        .model(model)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build());
+            }
+            transactionTemplate.executeWithoutResult(status -> carJdbcRepository.insertAll(batch));
+            batch.clear();
+            inserted += batchRows;
+            if (inserted >= nextProgress || inserted == rows) {
+                log.info("Generated {}/{} cars in {} ms", inserted, rows, elapsedMillis(startedAt));
+                nextProgress += progressStep;
+            }
+        }
+        long elapsed = elapsedMillis(startedAt);
+        log.info("Generated {} cars in {} ms ({} rows/s)", inserted, elapsed, inserted * 1000 / Math.max(1, elapsed));
+        return inserted;
+    }
+
+    private SeedProperties.MakeShare pick(List<SeedProperties.MakeShare> makes, int[] cumulativeWeights, int roll) {
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return makes.get(i);
+            }
+        }
+        return makes.get(makes.size() - 1);
+    }
+
+    private static long elapsedMillis(long startedAt) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+    }
+}
@@ -2,24 +2,47 @@ package com.example.springkata.bootstrap;
 
 import java.util.List;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
 
 import com.example.springkata.v1.domain.Car;
 import com.example.springkata.v1.repository.CarRepository;
+import com.example.springkata.v1.repository.ShardedCarRepository;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 
+@Slf4j
 @Component
 @RequiredArgsConstructor
+@EnableConfigurationProperties(SeedProperties.class)
 public class CarInitializer implements CommandLineRunner {
     private final CarRepository repository;
+    private final SeedProperties seedProperties;
+    private final CarDataGenerator carDataGenerator;
+    private final ObjectProvider<ShardedCarRepository> shardedCarRepository;
 
     @Override
     public void run(String... args) throws Exception {
-        System.out.println("Initializing database!");
-        if (repository.count() > 0) {
-            System.out.println("Database is already initialized!");
+        if (!seedProperties.isEnabled()) {
+            log.info("Database seeding is disabled!");
+            return;
+        }
+        log.info("Initializing database!");
+        ShardedCarRepository shards = shardedCarRepository.getIfAvailable();
+        if ((shards != null ? shards.count() : repository.count()) > 0) {
+            log.info("Database is already initialized!");
+            return;
+        }
+        if (seedProperties.getRows() > 0) {
+            if (shards != null) {
+                log.warn("Bulk seeding writes through the main data source and is skipped when sharding is enabled!");
+                return;
+            }
+            carDataGenerator.generate(seedProperties);
+            log.info("Database initialized successfully!");
             return;
         }
         Car toyota = Car.builder()
@@ -34,7 +57,11 @@ public class CarInitializer implements CommandLineRunner {
                 .make("Fiat")
                 .model("Panda")
                 .build();
-        repository.saveAll(List.of(toyota, volkswagen, fiat));
-        System.out.println("Database initialized successfully!");
+        if (shards != null) {
+            List.of(toyota, volkswagen, fiat).forEach(shards::insert);
+        } else {
+            repository.saveAll(List.of(toyota, volkswagen, fiat));
+        }
+        log.info("Database initialized successfully!");
     }
 }
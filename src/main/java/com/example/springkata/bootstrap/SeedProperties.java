@@ -0,0 +1,41 @@
+package com.example.springkata.bootstrap;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.*;
+
+// With rows left at 0 only the sample cars are inserted.
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cars.seed")
+public class SeedProperties {
+    private boolean enabled = true;
+
+    private long rows = 0;
+
+    private long randomSeed = 42;
+
+    private int batchSize = 1000;
+
+    private List<MakeShare> makes = new ArrayList<>(List.of(
+            new MakeShare("Toyota", 30, List.of("Hilux", "Corolla", "Yaris", "RAV4")),
+            new MakeShare("Volkswagen", 25, List.of("Beetle", "Golf", "Passat", "Polo")),
+            new MakeShare("Ford", 20, List.of("Focus", "Fiesta", "Mondeo")),
+            new MakeShare("Fiat", 15, List.of("Panda", "500", "Tipo")),
+            new MakeShare("Honda", 10, List.of("Civic", "Jazz", "Accord"))));
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MakeShare {
+        private String make;
+
+        private int weight;
+
+        private List<String> models = new ArrayList<>();
+    }
+}
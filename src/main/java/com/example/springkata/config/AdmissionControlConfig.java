@@ -0,0 +1,62 @@
+package com.example.springkata.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import com.example.springkata.v1.util.ControllerPaths;
+import com.example.springkata.v1.util.MetricNames;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Separate read and write limits, so a burst of writes cannot starve reads of the pool or the other way around.
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(prefix = "cars.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlConfig {
+    public static final String READ = "read";
+    public static final String WRITE = "write";
+    public static final String STREAM = "stream";
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilter(AdmissionControlProperties properties,
+                                                                                 MeterRegistry meterRegistry) {
+        AdmissionControlFilter filter = new AdmissionControlFilter(
+                limiter(READ, properties.getRead(), meterRegistry),
+                limiter(WRITE, properties.getWrite(), meterRegistry),
+                limiter(STREAM, properties.getStream(), meterRegistry),
+                rejected(READ, meterRegistry),
+                rejected(WRITE, meterRegistry),
+                rejected(STREAM, meterRegistry),
+                properties.getRetryAfter());
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns(ControllerPaths.CARS_URL_PATTERNS);
+        // ahead of everything else, so shed requests cost as little as possible
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    private VegasConcurrencyLimiter limiter(String kind, AdmissionControlProperties.Limit limit, MeterRegistry meterRegistry) {
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(limit.getInitialLimit(), limit.getMinLimit(), limit.getMaxLimit());
+        Gauge.builder(MetricNames.CAR_CONCURRENCY_LIMIT, limiter, VegasConcurrencyLimiter::getLimit)
+                .tag("kind", kind)
+                .register(meterRegistry);
+        Gauge.builder(MetricNames.CAR_CONCURRENCY_IN_FLIGHT, limiter, VegasConcurrencyLimiter::getInFlight)
+                .tag("kind", kind)
+                .register(meterRegistry);
+        return limiter;
+    }
+
+    private Counter rejected(String kind, MeterRegistry meterRegistry) {
+        return Counter.builder(MetricNames.CAR_CONCURRENCY_REJECTED)
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.springkata.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.springkata.v1.util.ControllerPaths;
+
+import io.micrometer.core.instrument.Counter;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+
+// Streams hold their slot until they end, but their latency is not sampled. Long-lived streams (NDJSON, export
+// and change-feed subscriptions) get their own pool, so open subscribers cannot use up the read limit.
+@RequiredArgsConstructor
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final Pattern ID_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+    private static final String STREAM_PARAMETER = "stream";
+
+    private final VegasConcurrencyLimiter readLimiter;
+    private final VegasConcurrencyLimiter writeLimiter;
+    private final VegasConcurrencyLimiter streamLimiter;
+    private final Counter readRejected;
+    private final Counter writeRejected;
+    private final Counter streamRejected;
+    private final Duration retryAfter;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        boolean read = isRead(request);
+        boolean stream = read && isStream(request);
+        VegasConcurrencyLimiter limiter = stream ? streamLimiter : read ? readLimiter : writeLimiter;
+        Optional<VegasConcurrencyLimiter.Permit> permit = limiter.tryAcquire(route(request));
+        if (permit.isEmpty()) {
+            (stream ? streamRejected : read ? readRejected : writeRejected).increment();
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, retryAfter.toSeconds())));
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            return;
+        }
+        boolean completed = false;
+        try {
+            chain.doFilter(request, response);
+            completed = true;
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new StreamListener(permit.get()));
+            } else if (!completed || response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value()) {
+                permit.get().onDropped();
+            } else {
+                permit.get().onSuccess();
+            }
+        }
+    }
+
+    private boolean isRead(HttpServletRequest request) {
+        String method = request.getMethod();
+        return HttpMethod.GET.matches(method) || HttpMethod.HEAD.matches(method) || HttpMethod.OPTIONS.matches(method);
+    }
+
+    private boolean isStream(HttpServletRequest request) {
+        return Boolean.parseBoolean(request.getParameter(STREAM_PARAMETER))
+                || request.getRequestURI().equals(ControllerPaths.GET_CARS_EXPORT_V1);
+    }
+
+    // ids collapsed, so the latency baseline is kept per endpoint rather than per car
+    static String route(HttpServletRequest request) {
+        return request.getMethod() + " " + ID_SEGMENT.matcher(request.getRequestURI()).replaceAll("/{id}");
+    }
+
+    private record StreamListener(VegasConcurrencyLimiter.Permit permit) implements AsyncListener {
+        @Override
+        public void onComplete(AsyncEvent event) {
+            permit.onIgnore();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permit.onIgnore();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permit.onIgnore();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // listeners are dropped when async processing is restarted
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
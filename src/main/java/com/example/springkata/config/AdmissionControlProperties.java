@@ -0,0 +1,43 @@
+package com.example.springkata.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cars.admission")
+public class AdmissionControlProperties {
+    private boolean enabled = true;
+
+    private Limit read = new Limit(50, 5, 500);
+
+    private Limit write = new Limit(20, 2, 200);
+
+    // Fixed rather than adaptive, since stream latency is not sampled; NDJSON and export streams hold a connection.
+    private Limit stream = new Limit(8, 8, 8);
+
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int initialLimit;
+
+        private int minLimit;
+
+        private int maxLimit;
+
+        public Limit() {
+        }
+
+        public Limit(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+}
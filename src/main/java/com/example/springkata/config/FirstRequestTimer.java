@@ -0,0 +1,41 @@
+package com.example.springkata.config;
+
+import static com.example.springkata.v1.util.ControllerPaths.GET_CARS_V1_PATH;
+import static com.example.springkata.v1.util.MetricNames.APPLICATION_FIRST_REQUEST_TIME;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class FirstRequestTimer implements ApplicationListener<ServletRequestHandledEvent> {
+    private final MeterRegistry meterRegistry;
+    private final AtomicBoolean recorded = new AtomicBoolean();
+
+    @Override
+    public void onApplicationEvent(ServletRequestHandledEvent event) {
+        if (recorded.get() || event.wasFailure() || event.getStatusCode() / 100 != 2
+                || !HttpMethod.GET.matches(event.getMethod()) || !GET_CARS_V1_PATH.equals(event.getRequestUrl())) {
+            return;
+        }
+        if (recorded.compareAndSet(false, true)) {
+            long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+            TimeGauge.builder(APPLICATION_FIRST_REQUEST_TIME, () -> uptime, TimeUnit.MILLISECONDS)
+                    .description("Time from JVM start until the first successful GET " + GET_CARS_V1_PATH)
+                    .register(meterRegistry);
+            log.info("First successful GET {} served {} ms after JVM start", GET_CARS_V1_PATH, uptime);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.springkata.config;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.annotation.RegisterReflectionForBinding;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import com.example.springkata.v1.domain.BatchItemResult;
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarChange;
+import com.example.springkata.v1.domain.CarCollectionVersion;
+import com.example.springkata.v1.domain.CarMakeStats;
+import com.example.springkata.v1.domain.CarModelStats;
+import com.example.springkata.v1.domain.CarSearchHit;
+import com.example.springkata.v1.domain.CarView;
+import com.example.springkata.v1.domain.ImportResult;
+
+// Types only (de)serialized by our own mapper calls or built by JPQL constructor expressions are invisible to AOT.
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.CarRuntimeHints.class)
+@RegisterReflectionForBinding({Car.class, CarChange.class, CarView.class, BatchItemResult.class, ImportResult.class})
+public class NativeHintsConfig {
+    static final String JCACHE_CONFIG = "hibernate-jcache.conf";
+    // named in spring.jpa.properties.hibernate.javax.cache.provider only, so nothing references the class
+    static final String JCACHE_PROVIDER = "com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider";
+
+    static class CarRuntimeHints implements RuntimeHintsRegistrar {
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            hints.reflection()
+                    .registerType(CarView.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                    .registerType(CarCollectionVersion.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                    .registerType(CarSearchHit.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                    .registerType(CarMakeStats.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                    .registerType(CarModelStats.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)
+                    .registerType(TypeReference.of(JCACHE_PROVIDER), MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+            hints.resources()
+                    .registerPattern(JCACHE_CONFIG)
+                    .registerPattern(ShardingConfig.SHARD_SCHEMA);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.springkata.config;
+
+import java.util.Collection;
+import java.util.concurrent.Callable;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.CacheOperationInvocationContext;
+import org.springframework.cache.interceptor.CacheableOperation;
+import org.springframework.cache.interceptor.SimpleCacheResolver;
+import org.springframework.cache.support.NoOpCache;
+
+// Evictions always reach the real caches.
+public class ReplicaAwareCacheResolver extends SimpleCacheResolver {
+    private final ReplicaRoutingDataSource replicaRoutingDataSource;
+
+    public ReplicaAwareCacheResolver(CacheManager cacheManager, ReplicaRoutingDataSource replicaRoutingDataSource) {
+        super(cacheManager);
+        this.replicaRoutingDataSource = replicaRoutingDataSource;
+    }
+
+    @Override
+    public Collection<? extends Cache> resolveCaches(CacheOperationInvocationContext<?> context) {
+        Collection<? extends Cache> caches = super.resolveCaches(context);
+        if (!(context.getOperation() instanceof CacheableOperation)) {
+            return caches;
+        }
+        if (ReplicaRoutingDataSource.isPinnedToPrimary()) {
+            return caches.stream().map(cache -> new NoOpCache(cache.getName())).toList();
+        }
+        if (replicaRoutingDataSource.isWithinLagWindow()) {
+            return caches.stream().map(ReadOnlyCache::new).toList();
+        }
+        return caches;
+    }
+
+    private record ReadOnlyCache(Cache delegate) implements Cache {
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public Object getNativeCache() {
+            return delegate.getNativeCache();
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            return delegate.get(key);
+        }
+
+        @Override
+        public <T> T get(Object key, Class<T> type) {
+            return delegate.get(key, type);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            ValueWrapper cached = delegate.get(key);
+            if (cached != null) {
+                return (T) cached.get();
+            }
+            try {
+                return valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+        }
+
+        @Override
+        public void put(Object key, Object value) {
+            // the value may come from a replica that has not seen the last write yet
+        }
+
+        @Override
+        public void evict(Object key) {
+            delegate.evict(key);
+        }
+
+        @Override
+        public void clear() {
+            delegate.clear();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.springkata.config;
+
+import java.sql.SQLException;
+
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+// Pinned reads bypass the caches; replica reads inside the lag window may read them but not fill them.
+@RequiredArgsConstructor
+public class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+    private final ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource;
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition) throws SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        entityManager.unwrap(Session.class).setCacheMode(cacheMode(definition));
+        return transactionData;
+    }
+
+    private CacheMode cacheMode(TransactionDefinition definition) {
+        if (ReplicaRoutingDataSource.isPinnedToPrimary()) {
+            return CacheMode.IGNORE;
+        }
+        if (definition.isReadOnly() && replicaRoutingDataSource.getObject().isWithinLagWindow()) {
+            return CacheMode.GET;
+        }
+        return CacheMode.NORMAL;
+    }
+}
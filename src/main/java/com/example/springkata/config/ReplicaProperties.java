@@ -0,0 +1,29 @@
+package com.example.springkata.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cars.replica")
+public class ReplicaProperties {
+    private boolean enabled = false;
+
+    private List<String> urls = new ArrayList<>();
+
+    private String username;
+
+    private String password;
+
+    private int maximumPoolSize = 10;
+
+    private boolean readYourWrites = true;
+
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+}
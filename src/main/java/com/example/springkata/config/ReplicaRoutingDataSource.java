@@ -0,0 +1,105 @@
+package com.example.springkata.config;
+
+import static com.example.springkata.v1.util.MetricNames.CAR_DATASOURCE_ROUTED;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Routes when the connection is fetched, so this has to sit behind a LazyConnectionDataSourceProxy:
+// JPA fetches its connection before the transaction is marked read-only.
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA_PREFIX = "replica-";
+    private static final ThreadLocal<Boolean> PRIMARY_PINNED = new ThreadLocal<>();
+
+    private final List<HikariDataSource> replicas;
+    private final long lagWindowNanos;
+    private final Map<String, Counter> routedCounters = new LinkedHashMap<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private volatile long lastWriteNanos;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas, Duration lagWindow,
+                                    MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.lagWindowNanos = lagWindow.toNanos();
+        this.lastWriteNanos = System.nanoTime() - lagWindowNanos;
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA_PREFIX + i, replicas.get(i));
+        }
+        targets.keySet().forEach(key -> routedCounters.put((String) key, Counter.builder(CAR_DATASOURCE_ROUTED)
+                .tag("target", (String) key)
+                .register(meterRegistry)));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    public static PrimaryScope pinToPrimary() {
+        boolean alreadyPinned = PRIMARY_PINNED.get() != null;
+        PRIMARY_PINNED.set(Boolean.TRUE);
+        return () -> {
+            if (!alreadyPinned) {
+                PRIMARY_PINNED.remove();
+            }
+        };
+    }
+
+    public static boolean isPinnedToPrimary() {
+        return PRIMARY_PINNED.get() != null;
+    }
+
+    public boolean isWithinLagWindow() {
+        return System.nanoTime() - lastWriteNanos < lagWindowNanos;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        boolean readOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        String key = PRIMARY;
+        if (!replicas.isEmpty() && readOnly && !isPinnedToPrimary()) {
+            key = REPLICA_PREFIX + Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        }
+        if (!readOnly && TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            recordWriteOnCommit();
+        }
+        routedCounters.get(key).increment();
+        return key;
+    }
+
+    // Replication starts with the commit, so that is where the window begins. Connections taken outside a
+    // transaction and rolled back transactions leave it alone; they have nothing for a replica to catch up on.
+    private void recordWriteOnCommit() {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                lastWriteNanos = System.nanoTime();
+            }
+        });
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(HikariDataSource::close);
+    }
+
+    public interface PrimaryScope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
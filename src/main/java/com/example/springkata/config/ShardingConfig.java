@@ -0,0 +1,62 @@
+package com.example.springkata.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.util.Assert;
+
+import com.example.springkata.v1.repository.CarIdGenerator;
+import com.example.springkata.v1.repository.ShardedCarRepository;
+import com.zaxxer.hikari.HikariDataSource;
+
+@Configuration
+@ConditionalOnProperty(prefix = "cars.sharding", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+    public static final String SHARD_SCHEMA = "db/car-shard-schema.sql";
+    public static final String SHARD_POOL_PREFIX = "cars-shard-";
+
+    @Bean
+    public ShardedCarRepository shardedCarRepository(ShardingProperties shardingProperties,
+                                                     DataSourceProperties dataSourceProperties,
+                                                     @Value("${cars.write-behind.enabled:false}") boolean writeBehindEnabled) {
+        Assert.notEmpty(shardingProperties.getUrls(), "At least one shard url is needed when sharding is enabled!");
+        // a shared default would let two instances hand out the same ids
+        Assert.notNull(shardingProperties.getWorkerId(), "A worker id unique to this instance is needed when sharding is enabled!");
+        // the write-behind flusher inserts through JPA's data source and would bypass the shards
+        Assert.state(!writeBehindEnabled, "Write-behind cannot be combined with sharding!");
+        List<JdbcTemplate> shards = new ArrayList<>();
+        List<AutoCloseable> pools = new ArrayList<>();
+        for (int index = 0; index < shardingProperties.getUrls().size(); index++) {
+            HikariDataSource shard = shard(shardingProperties.getUrls().get(index), index, dataSourceProperties, shardingProperties);
+            pools.add(shard);
+            new ResourceDatabasePopulator(new ClassPathResource(SHARD_SCHEMA)).execute(shard);
+            shards.add(new JdbcTemplate(shard));
+        }
+        return new ShardedCarRepository(shards, new CarIdGenerator(shardingProperties.getWorkerId()),
+                shardingProperties.getFanOutTimeout(), pools);
+    }
+
+    private HikariDataSource shard(String url, int index, DataSourceProperties dataSourceProperties,
+                                   ShardingProperties shardingProperties) {
+        HikariDataSource shard = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(shardingProperties.getUsername() != null ? shardingProperties.getUsername() : dataSourceProperties.determineUsername())
+                .password(shardingProperties.getPassword() != null ? shardingProperties.getPassword() : dataSourceProperties.determinePassword())
+                .build();
+        shard.setPoolName(SHARD_POOL_PREFIX + index);
+        shard.setMaximumPoolSize(shardingProperties.getMaximumPoolSize());
+        return shard;
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.springkata.config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+// Rows are placed by a hash of their id, so the url list may only grow by migrating rows.
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cars.sharding")
+public class ShardingProperties {
+    private boolean enabled = false;
+
+    private List<String> urls = new ArrayList<>();
+
+    private String username;
+
+    private String password;
+
+    private int maximumPoolSize = 10;
+
+    private Integer workerId;
+
+    private Duration fanOutTimeout = Duration.ofSeconds(5);
+}
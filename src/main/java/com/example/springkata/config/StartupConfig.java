@@ -0,0 +1,17 @@
+package com.example.springkata.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.springkata.v1.controller.CarController;
+import com.example.springkata.v1.repository.CarRepository;
+import com.example.springkata.v1.service.CarService;
+
+@Configuration
+public class StartupConfig {
+    @Bean
+    static LazyInitializationExcludeFilter carReadPathLazyInitializationExcludeFilter() {
+        return LazyInitializationExcludeFilter.forBeanTypes(CarController.class, CarService.class, CarRepository.class);
+    }
+}
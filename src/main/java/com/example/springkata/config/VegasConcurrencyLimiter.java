@@ -0,0 +1,170 @@
+package com.example.springkata.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import org.springframework.util.Assert;
+
+// TCP Vegas over request concurrency: by Little's law limit * (1 - noLoadRtt / rtt) requests are queueing.
+public class VegasConcurrencyLimiter {
+    static final int PROBE_MULTIPLIER = 30;
+    static final int MAX_ROUTES = 64;
+    static final String DEFAULT_ROUTE = "default";
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final LongSupplier clock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, Baseline> baselines = new HashMap<>();
+    private volatile int limit;
+    private double estimatedLimit;
+
+    public VegasConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, System::nanoTime);
+    }
+
+    VegasConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, LongSupplier clock) {
+        Assert.isTrue(minLimit > 0 && minLimit <= initialLimit && initialLimit <= maxLimit,
+                "Concurrency limits must satisfy 0 < min <= initial <= max!");
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.clock = clock;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    public Optional<Permit> tryAcquire() {
+        return tryAcquire(DEFAULT_ROUTE);
+    }
+
+    public Optional<Permit> tryAcquire(String route) {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return Optional.empty();
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return Optional.of(new Permit(route, clock.getAsLong(), current + 1));
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private synchronized void onSample(String route, long rttNanos, int inFlightAtStart, boolean dropped) {
+        if (rttNanos <= 0) {
+            return;
+        }
+        Baseline baseline = baselines.get(route);
+        if (baseline == null) {
+            // unknown paths must not grow the map without bound
+            baseline = baselines.computeIfAbsent(baselines.size() < MAX_ROUTES ? route : DEFAULT_ROUTE,
+                    ignored -> new Baseline(nextProbe(limit)));
+        }
+        long noLoadRttNanos = baseline.add(rttNanos, limit);
+        if (noLoadRttNanos == 0 || rttNanos < noLoadRttNanos) {
+            return;
+        }
+        double log = Math.max(1, Math.log10(estimatedLimit));
+        double next;
+        if (dropped) {
+            next = estimatedLimit - log;
+        } else if (inFlightAtStart * 2 < estimatedLimit) {
+            // the limit is not what holds requests back, so the latency says nothing about it
+            return;
+        } else {
+            double queue = Math.ceil(estimatedLimit * (1 - (double) noLoadRttNanos / rttNanos));
+            if (queue <= log) {
+                next = estimatedLimit + 6 * log;
+            } else if (queue < 3 * log) {
+                next = estimatedLimit + log;
+            } else if (queue > 6 * log) {
+                next = estimatedLimit - log;
+            } else {
+                return;
+            }
+        }
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+        limit = (int) estimatedLimit;
+    }
+
+    private static long nextProbe(int limit) {
+        // jittered so the read and write limiters do not probe in lockstep
+        return (long) PROBE_MULTIPLIER * limit + ThreadLocalRandom.current().nextInt(limit + 1);
+    }
+
+    // Min over the current and previous window, so the baseline follows a database that got permanently slower.
+    private static final class Baseline {
+        private long previousMinNanos;
+        private long currentMinNanos;
+        private long samplesLeft;
+
+        private Baseline(long windowSamples) {
+            this.samplesLeft = windowSamples;
+        }
+
+        private long add(long rttNanos, int limit) {
+            long baseline = min(previousMinNanos, currentMinNanos);
+            currentMinNanos = min(currentMinNanos, rttNanos);
+            if (--samplesLeft <= 0) {
+                previousMinNanos = currentMinNanos;
+                currentMinNanos = 0;
+                samplesLeft = nextProbe(limit);
+            }
+            return baseline;
+        }
+
+        private static long min(long first, long second) {
+            if (first == 0 || second == 0) {
+                return Math.max(first, second);
+            }
+            return Math.min(first, second);
+        }
+    }
+
+    public final class Permit {
+        private final String route;
+        private final long startedAt;
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(String route, long startedAt, int inFlightAtStart) {
+            this.route = route;
+            this.startedAt = startedAt;
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        public void onSuccess() {
+            release(false, true);
+        }
+
+        public void onDropped() {
+            release(true, true);
+        }
+
+        public void onIgnore() {
+            release(false, false);
+        }
+
+        private void release(boolean dropped, boolean sample) {
+            // async streams are released from container threads, possibly more than once
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            inFlight.decrementAndGet();
+            if (sample) {
+                onSample(route, clock.getAsLong() - startedAt, inFlightAtStart, dropped);
+            }
+        }
+    }
+}
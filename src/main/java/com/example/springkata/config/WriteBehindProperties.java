@@ -0,0 +1,29 @@
+package com.example.springkata.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "cars.write-behind")
+public class WriteBehindProperties {
+    private boolean enabled = false;
+
+    private int queueCapacity = 10_000;
+
+    private int maxBatchSize = 500;
+
+    private Duration maxDelay = Duration.ofMillis(20);
+
+    private Duration offerTimeout = Duration.ofMillis(100);
+
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+
+    private int maxAttempts = 3;
+
+    private Duration retryBackoff = Duration.ofMillis(200);
+}
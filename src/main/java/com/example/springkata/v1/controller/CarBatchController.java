@@ -0,0 +1,115 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.util.ControllerPaths.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.springkata.v1.domain.BatchItemResult;
+import com.example.springkata.v1.domain.BatchItemStatus;
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.service.CarBatchService;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "cars.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CarBatchController {
+    public static final int MAX_BATCH_SIZE = 10_000;
+
+    private final CarBatchService carBatchService;
+    private final Validator validator;
+
+    @PostMapping(POST_CARS_BATCH_V1)
+    ResponseEntity<List<BatchItemResult>> createCars(@RequestBody List<Car> cars) {
+        if (isOutOfBounds(cars)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<BatchItemResult> invalidItems = validateCars(cars, false);
+        if (!invalidItems.isEmpty()) {
+            return new ResponseEntity<>(invalidItems, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(carBatchService.saveAll(cars), HttpStatus.OK);
+    }
+
+    @PutMapping(PUT_CARS_BATCH_V1)
+    ResponseEntity<List<BatchItemResult>> updateCars(@RequestBody List<Car> cars) {
+        if (isOutOfBounds(cars)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<BatchItemResult> invalidItems = validateCars(cars, true);
+        if (!invalidItems.isEmpty()) {
+            return new ResponseEntity<>(invalidItems, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(carBatchService.updateAll(cars), HttpStatus.OK);
+    }
+
+    @DeleteMapping(DELETE_CARS_BATCH_V1)
+    ResponseEntity<List<BatchItemResult>> deleteCars(@RequestBody List<Long> ids) {
+        if (isOutOfBounds(ids)) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<BatchItemResult> invalidItems = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                invalidItems.add(invalid(i, null, "id: must not be null"));
+            }
+        }
+        if (!invalidItems.isEmpty()) {
+            return new ResponseEntity<>(invalidItems, HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(carBatchService.deleteAllById(ids), HttpStatus.OK);
+    }
+
+    private boolean isOutOfBounds(List<?> items) {
+        return items == null || items.isEmpty() || items.size() > MAX_BATCH_SIZE;
+    }
+
+    private List<BatchItemResult> validateCars(List<Car> cars, boolean idRequired) {
+        List<BatchItemResult> invalidItems = new ArrayList<>();
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < cars.size(); i++) {
+            Car car = cars.get(i);
+            if (car == null) {
+                invalidItems.add(invalid(i, null, "car: must not be null"));
+                continue;
+            }
+            Set<ConstraintViolation<Car>> violations = validator.validate(car);
+            if (idRequired && car.getId() == null) {
+                invalidItems.add(invalid(i, null, "id: must not be null"));
+            } else if (idRequired && !ids.add(car.getId())) {
+                // a repeated id would be looked up once and reported as not found
+                invalidItems.add(invalid(i, car.getId(), "id: must be unique within the batch"));
+            } else if (!violations.isEmpty()) {
+                String message = violations.stream()
+                        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "));
+                invalidItems.add(invalid(i, car.getId(), message));
+            }
+        }
+        return invalidItems;
+    }
+
+    private BatchItemResult invalid(int index, Long id, String message) {
+        return BatchItemResult.builder()
+                .index(index)
+                .id(id)
+                .status(BatchItemStatus.INVALID)
+                .message(message)
+                .build();
+    }
+}
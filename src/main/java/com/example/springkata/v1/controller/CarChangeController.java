@@ -0,0 +1,67 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.controller.CarController.NEXT_CURSOR_HEADER;
+import static com.example.springkata.v1.util.ControllerPaths.GET_CAR_CHANGES_V1;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.springkata.v1.domain.CarChange;
+import com.example.springkata.v1.service.CarChangeFeed;
+import com.example.springkata.v1.service.CarChangeService;
+
+import lombok.RequiredArgsConstructor;
+
+// Without since, both endpoints start at the current end of the feed.
+@RestController
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class CarChangeController {
+    public static final String DEFAULT_CHANGES_LIMIT = "100";
+    public static final int MAX_CHANGES_LIMIT = 1000;
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final CarChangeService carChangeService;
+    private final ObjectProvider<CarChangeFeed> carChangeFeed;
+
+    @GetMapping(GET_CAR_CHANGES_V1)
+    ResponseEntity<List<CarChange>> findChanges(@RequestParam(required = false, value = "since") Long since,
+                                                @RequestParam(required = false, value = "limit", defaultValue = DEFAULT_CHANGES_LIMIT) int limit) {
+        if (carChangeFeed.getIfAvailable() == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+        }
+        if ((since != null && since < 0) || limit < 1) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        Long cursor = since == null ? carChangeService.findLastCursor() : since;
+        List<CarChange> changes = since == null ? List.of() : carChangeService.findSince(cursor, Math.min(limit, MAX_CHANGES_LIMIT));
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(NEXT_CURSOR_HEADER, String.valueOf(changes.isEmpty() ? cursor : changes.get(changes.size() - 1).getId()));
+        return new ResponseEntity<>(changes, headers, HttpStatus.OK);
+    }
+
+    @GetMapping(value = GET_CAR_CHANGES_V1, params = "stream=true")
+    ResponseEntity<SseEmitter> streamChanges(@RequestParam(required = false, value = "since") Long since,
+                                             @RequestHeader(required = false, value = LAST_EVENT_ID_HEADER) Long lastEventId) {
+        CarChangeFeed feed = carChangeFeed.getIfAvailable();
+        if (feed == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+        }
+        // a reconnecting EventSource resumes from the last event it saw
+        Long cursor = lastEventId != null ? lastEventId : since;
+        if (cursor != null && cursor < 0) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(feed.subscribe(cursor == null ? carChangeService.findLastCursor() : cursor), HttpStatus.OK);
+    }
+}
@@ -2,46 +2,152 @@ package com.example.springkata.v1.controller;
 
 import static com.example.springkata.v1.util.ControllerPaths.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Date;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarCollectionVersion;
+import com.example.springkata.v1.domain.CarStats;
+import com.example.springkata.v1.domain.CarView;
 import com.example.springkata.v1.exception.CarNotFoundException;
+import com.example.springkata.v1.exception.CarVersionMismatchException;
+import com.example.springkata.v1.exception.CarWriteQueueFullException;
 import com.example.springkata.v1.service.CarService;
+import com.example.springkata.v1.service.CarWriteBehindService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.RequiredArgsConstructor;
 
 @RestController
+@Profile("!reactive")
 @RequiredArgsConstructor
 public class CarController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String DEFAULT_PAGE_LIMIT = "100";
+    public static final int MAX_PAGE_LIMIT = 1000;
+    public static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType APPLICATION_SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+    // in order of preference when Accept allows several of them
+    private static final List<MediaType> CAR_MEDIA_TYPES = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, APPLICATION_SMILE);
+    private static final byte NEW_LINE = '\n';
+    private static final String ANY_ETAG = "*";
+    private static final Duration STATS_MAX_AGE = Duration.ofSeconds(60);
+    private static final String WRITE_QUEUE_RETRY_AFTER_SECONDS = "1";
 
     private final CarService carService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<CarWriteBehindService> carWriteBehindService;
 
     @GetMapping(GET_CARS_V1_PATH)
-    ResponseEntity<List<Car>> findCars(@RequestParam(required = false, value = "make") String make) {
-        List<Car> cars = carService.findAll(make);
+    ResponseEntity<List<?>> findCars(@RequestParam(required = false, value = "make") String make,
+                                     @RequestParam(required = false, value = "after") Long after,
+                                     @RequestParam(required = false, value = "limit", defaultValue = DEFAULT_PAGE_LIMIT) int limit,
+                                     @RequestParam(required = false, value = "fields") Set<String> fields,
+                                     WebRequest webRequest) {
+        if (limit < 1 || (fields != null && (fields.isEmpty() || !CarView.fieldNames().containsAll(fields)))) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        CarCollectionVersion version = carService.findVersion(make);
+        if (version.getCount() == 0) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        int pageLimit = Math.min(limit, MAX_PAGE_LIMIT);
+        // no Last-Modified: a delete does not move max(updatedAt), only the count in the ETag
+        if (webRequest.checkNotModified(getCollectionETag(version, make, after, pageLimit, fields))) {
+            return null;
+        }
+        List<CarView> cars = carService.findPage(make, after, pageLimit);
         if (cars.isEmpty()) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
-        return new ResponseEntity<>(cars, HttpStatus.OK);
+        HttpHeaders headers = new HttpHeaders();
+        // JSON, CBOR and Smile share the weak collection ETag, so caches have to key on Accept too
+        headers.setVary(List.of(HttpHeaders.ACCEPT));
+        if (cars.size() == pageLimit) {
+            headers.add(NEXT_CURSOR_HEADER, String.valueOf(cars.get(cars.size() - 1).getId()));
+        }
+        if (fields != null) {
+            return new ResponseEntity<>(cars.stream().map(car -> car.select(fields)).toList(), headers, HttpStatus.OK);
+        }
+        return new ResponseEntity<>(cars, headers, HttpStatus.OK);
+    }
+
+    @GetMapping(value = GET_CARS_V1_PATH, params = "stream=true")
+    ResponseEntity<StreamingResponseBody> streamCars(@RequestParam(required = false, value = "make") String make) {
+        StreamingResponseBody body = outputStream -> carService.streamAll(make, car -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(car));
+                outputStream.write(NEW_LINE);
+            } catch (JsonProcessingException e) {
+                throw new IllegalStateException("Could not serialize car with id: " + car.getId(), e);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(GET_CARS_STATS_V1)
+    ResponseEntity<CarStats> findStats() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setCacheControl(CacheControl.maxAge(STATS_MAX_AGE).cachePublic());
+        return new ResponseEntity<>(carService.findStats(), headers, HttpStatus.OK);
     }
 
     @GetMapping(GET_CAR_BY_ID_V1)
-    ResponseEntity<Car> findCar(@PathVariable(required = true, value = "carId") Long carId) {
+    ResponseEntity<Car> findCar(@PathVariable(required = true, value = "carId") Long carId,
+                                @RequestHeader(required = false, value = HttpHeaders.ACCEPT) String accept) {
+        // negotiated here rather than by the converters, so the strong ETag can name the representation
+        MediaType mediaType = selectCarMediaType(accept);
+        if (mediaType == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_ACCEPTABLE);
+        }
         Car car = carService.findById(carId);
         if (car == null) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
-        return new ResponseEntity<>(car, HttpStatus.OK);
+        // a matching If-None-Match / If-Modified-Since turns this into a 304 before the body is written
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(mediaType)
+                .varyBy(HttpHeaders.ACCEPT);
+        if (car.getVersion() != null) {
+            response.eTag(getCarETag(car, mediaType));
+        }
+        if (car.getUpdatedAt() != null) {
+            response.lastModified(car.getUpdatedAt().getTime());
+        }
+        return response.body(car);
     }
 
     @PostMapping(POST_CAR_V1)
     ResponseEntity<Void> createCar(@RequestBody @Validated Car car) {
+        CarWriteBehindService writeBehind = carWriteBehindService.getIfAvailable();
+        if (writeBehind != null) {
+            // the id is reserved up front, the row becomes readable once its batch is committed
+            Car queuedCar = writeBehind.enqueue(car);
+            return new ResponseEntity<>(getHttpHeaders(queuedCar.getId()), HttpStatus.ACCEPTED);
+        }
         Car persistedCar = carService.save(car);
         if (persistedCar == null) {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
@@ -57,22 +163,120 @@ public class CarController {
     }
 
     @PutMapping(PUT_CAR_BY_ID_V1)
-    ResponseEntity<Void> updateById(@PathVariable("carId") Long carId, @RequestBody @Validated Car car) {
-        Car car1 = carService.updateById(carId, car);
+    ResponseEntity<Void> updateById(@PathVariable("carId") Long carId, @RequestBody @Validated Car car,
+                                    @RequestHeader(required = false, value = HttpHeaders.IF_MATCH) String ifMatch) {
+        Long expectedVersion = null;
+        if (ifMatch != null && !ANY_ETAG.equals(ifMatch.trim())) {
+            expectedVersion = parseVersion(ifMatch);
+            if (expectedVersion == null) {
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            }
+        }
+        Car car1 = carService.updateById(carId, car, expectedVersion);
         HttpHeaders httpHeaders = getHttpHeaders(car1.getId());
+        httpHeaders.setETag(getCarETag(car1));
         return new ResponseEntity<>(httpHeaders, HttpStatus.NO_CONTENT);
     }
 
-
-
     @ExceptionHandler(CarNotFoundException.class)
     public ResponseEntity<Void> handleCarNotFound() {
         return new ResponseEntity<>(HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(CarVersionMismatchException.class)
+    public ResponseEntity<Void> handleCarVersionMismatch() {
+        return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(CarWriteQueueFullException.class)
+    public ResponseEntity<Void> handleCarWriteQueueFull() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.RETRY_AFTER, WRITE_QUEUE_RETRY_AFTER_SECONDS);
+        return new ResponseEntity<>(headers, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     private HttpHeaders getHttpHeaders(Long carId) {
         HttpHeaders headers = new HttpHeaders();
         headers.add(HttpHeaders.LOCATION, GET_CAR_WITHOUT_ID_V1 + carId);
         return headers;
     }
+
+    private String getCarETag(Car car) {
+        return "\"" + car.getVersion() + "\"";
+    }
+
+    // JSON keeps the bare version that updates return; CBOR and Smile bodies differ in bytes, so their tags name them
+    private String getCarETag(Car car, MediaType mediaType) {
+        if (MediaType.APPLICATION_JSON.equals(mediaType)) {
+            return getCarETag(car);
+        }
+        return "\"" + car.getVersion() + "-" + mediaType.getSubtype() + "\"";
+    }
+
+    private MediaType selectCarMediaType(String accept) {
+        if (accept == null) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> acceptedTypes;
+        try {
+            acceptedTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MediaType selected = null;
+        MediaType selectedBy = null;
+        for (MediaType acceptedType : acceptedTypes) {
+            MediaType candidate = CAR_MEDIA_TYPES.stream().filter(acceptedType::includes).findFirst().orElse(null);
+            if (candidate == null || acceptedType.getQualityValue() == 0) {
+                continue;
+            }
+            // higher quality wins, and on a tie a specific type beats the wildcard that covers it
+            if (selectedBy == null || acceptedType.getQualityValue() > selectedBy.getQualityValue()
+                    || (acceptedType.getQualityValue() == selectedBy.getQualityValue() && isMoreSpecific(acceptedType, selectedBy))) {
+                selected = candidate;
+                selectedBy = acceptedType;
+            }
+        }
+        return selected;
+    }
+
+    private boolean isMoreSpecific(MediaType mediaType, MediaType other) {
+        return other.includes(mediaType) && !other.equalsTypeAndSubtype(mediaType);
+    }
+
+    private Long parseVersion(String eTag) {
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            // weak validators never satisfy If-Match
+            return null;
+        }
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        // every representation's tag of the same version identifies the same state of the car
+        int separator = value.indexOf('-');
+        if (separator > 0 && isCarSubtype(value.substring(separator + 1))) {
+            value = value.substring(0, separator);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private boolean isCarSubtype(String subtype) {
+        return CAR_MEDIA_TYPES.stream().anyMatch(mediaType -> mediaType.getSubtype().equals(subtype));
+    }
+
+    // Weak: the JSON, CBOR and Smile bodies of a page are equivalent but not byte-identical.
+    private String getCollectionETag(CarCollectionVersion version, String make, Long after, int limit, Set<String> fields) {
+        String page = Car.normalizeMake(make) + "|" + after + "|" + limit + "|" + (fields == null ? "" : new TreeSet<>(fields));
+        return "W/\"" + version.getCount() + "-" + version.getMaxId() + "-" + getTime(version.getLastUpdatedAt())
+                + "-" + Integer.toHexString(page.hashCode()) + "\"";
+    }
+
+    private long getTime(Date date) {
+        return date == null ? -1 : date.getTime();
+    }
 }
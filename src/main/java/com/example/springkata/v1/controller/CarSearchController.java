@@ -0,0 +1,40 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.util.ControllerPaths.GET_CARS_SEARCH_V1;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.springkata.v1.domain.CarSearchHit;
+import com.example.springkata.v1.service.CarSearchService;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class CarSearchController {
+    public static final String DEFAULT_SEARCH_LIMIT = "20";
+    public static final int MAX_SEARCH_LIMIT = 100;
+
+    private final CarSearchService carSearchService;
+
+    @GetMapping(GET_CARS_SEARCH_V1)
+    ResponseEntity<List<CarSearchHit>> searchCars(@RequestParam(value = "q") String query,
+                                                  @RequestParam(required = false, value = "limit", defaultValue = DEFAULT_SEARCH_LIMIT) int limit) {
+        if (query.isBlank() || limit < 1) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        List<CarSearchHit> hits = carSearchService.search(query, Math.min(limit, MAX_SEARCH_LIMIT));
+        if (hits.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        return new ResponseEntity<>(hits, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.util.ControllerPaths.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.springkata.v1.domain.CarView;
+import com.example.springkata.v1.domain.ImportResult;
+import com.example.springkata.v1.service.CarImportService;
+import com.example.springkata.v1.service.CarService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import lombok.RequiredArgsConstructor;
+
+@RestController
+@Profile("!reactive")
+@RequiredArgsConstructor
+public class CarTransferController {
+    public static final String TEXT_CSV_VALUE = "text/csv";
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addColumn("id")
+            .addColumn("make")
+            .addColumn("model")
+            .addColumn("version")
+            .addColumn("createdAt")
+            .addColumn("updatedAt")
+            .setUseHeader(true)
+            .build();
+    private static final ObjectWriter CSV_WRITER = CsvMapper.builder()
+            .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+            .build()
+            .writerFor(CarView.class)
+            .with(CSV_SCHEMA);
+
+    private final ObjectProvider<CarImportService> carImportService;
+    private final CarService carService;
+    private final ObjectMapper objectMapper;
+
+    @PostMapping(value = POST_CARS_IMPORT_V1, consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<ImportResult> importNdjson(InputStream body) throws IOException {
+        CarImportService importService = carImportService.getIfAvailable();
+        if (importService == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+        }
+        return new ResponseEntity<>(importService.importNdjson(body), HttpStatus.OK);
+    }
+
+    @PostMapping(value = POST_CARS_IMPORT_V1, consumes = TEXT_CSV_VALUE)
+    ResponseEntity<ImportResult> importCsv(InputStream body) throws IOException {
+        CarImportService importService = carImportService.getIfAvailable();
+        if (importService == null) {
+            return new ResponseEntity<>(HttpStatus.NOT_IMPLEMENTED);
+        }
+        return new ResponseEntity<>(importService.importCsv(body), HttpStatus.OK);
+    }
+
+    @GetMapping(value = GET_CARS_EXPORT_V1, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    ResponseEntity<StreamingResponseBody> exportNdjson(@RequestParam(required = false, value = "make") String make) {
+        ObjectWriter writer = objectMapper.writerFor(CarView.class)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n");
+        return export(make, writer, MediaType.APPLICATION_NDJSON);
+    }
+
+    @GetMapping(value = GET_CARS_EXPORT_V1, produces = TEXT_CSV_VALUE)
+    ResponseEntity<StreamingResponseBody> exportCsv(@RequestParam(required = false, value = "make") String make) {
+        return export(make, CSV_WRITER, MediaType.parseMediaType(TEXT_CSV_VALUE));
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(String make, ObjectWriter writer, MediaType mediaType) {
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter rows = writer.writeValues(outputStream)) {
+                carService.streamAll(make, car -> {
+                    try {
+                        rows.write(CarView.from(car));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .body(body);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.util.ControllerPaths.*;
+
+import java.util.List;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.exception.CarNotFoundException;
+import com.example.springkata.v1.exception.CarVersionMismatchException;
+import com.example.springkata.v1.service.ReactiveCarService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCarController {
+    private static final String ANY_ETAG = "*";
+
+    private final ReactiveCarService carService;
+
+    @GetMapping(GET_CARS_V1_PATH)
+    Mono<ResponseEntity<List<Car>>> findCars(@RequestParam(required = false, value = "make") String make,
+                                             @RequestParam(required = false, value = "after") Long after,
+                                             @RequestParam(required = false, value = "limit", defaultValue = CarController.DEFAULT_PAGE_LIMIT) int limit) {
+        if (limit < 1) {
+            return Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+        }
+        int pageLimit = Math.min(limit, CarController.MAX_PAGE_LIMIT);
+        return carService.findPage(make, after, pageLimit)
+                .collectList()
+                .map(cars -> {
+                    if (cars.isEmpty()) {
+                        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+                    }
+                    HttpHeaders headers = new HttpHeaders();
+                    if (cars.size() == pageLimit) {
+                        headers.add(CarController.NEXT_CURSOR_HEADER, String.valueOf(cars.get(cars.size() - 1).getId()));
+                    }
+                    return new ResponseEntity<>(cars, headers, HttpStatus.OK);
+                });
+    }
+
+    @GetMapping(value = GET_CARS_V1_PATH, params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    Flux<Car> streamCars(@RequestParam(required = false, value = "make") String make) {
+        // rows are pulled from the database cursor only as fast as the client consumes them
+        return carService.findAll(make);
+    }
+
+    @GetMapping(GET_CAR_BY_ID_V1)
+    Mono<ResponseEntity<Car>> findCar(@PathVariable(required = true, value = "carId") Long carId) {
+        return carService.findById(carId)
+                .map(car -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+                    if (car.getVersion() != null) {
+                        response.eTag(getCarETag(car));
+                    }
+                    return response.body(car);
+                })
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @PostMapping(POST_CAR_V1)
+    Mono<ResponseEntity<Void>> createCar(@RequestBody @Validated Car car) {
+        return carService.save(car)
+                .map(persistedCar -> new ResponseEntity<Void>(getHttpHeaders(persistedCar.getId()), HttpStatus.CREATED))
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+
+    @DeleteMapping(DELETE_CAR_BY_ID_V1)
+    Mono<ResponseEntity<Void>> deleteById(@PathVariable("carId") Long carId) {
+        return carService.deleteById(carId)
+                .thenReturn(new ResponseEntity<Void>(HttpStatus.NO_CONTENT));
+    }
+
+    @PutMapping(PUT_CAR_BY_ID_V1)
+    Mono<ResponseEntity<Void>> updateById(@PathVariable("carId") Long carId, @RequestBody @Validated Car car,
+                                          @RequestHeader(required = false, value = HttpHeaders.IF_MATCH) String ifMatch) {
+        Long expectedVersion = null;
+        if (ifMatch != null && !ANY_ETAG.equals(ifMatch.trim())) {
+            expectedVersion = parseVersion(ifMatch);
+            if (expectedVersion == null) {
+                return Mono.just(new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED));
+            }
+        }
+        return carService.updateById(carId, car, expectedVersion)
+                .map(car1 -> {
+                    HttpHeaders httpHeaders = getHttpHeaders(car1.getId());
+                    httpHeaders.setETag(getCarETag(car1));
+                    return new ResponseEntity<Void>(httpHeaders, HttpStatus.NO_CONTENT);
+                });
+    }
+
+    @ExceptionHandler(CarNotFoundException.class)
+    public ResponseEntity<Void> handleCarNotFound() {
+        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+    }
+
+    @ExceptionHandler(CarVersionMismatchException.class)
+    public ResponseEntity<Void> handleCarVersionMismatch() {
+        return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    private HttpHeaders getHttpHeaders(Long carId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add(HttpHeaders.LOCATION, GET_CAR_WITHOUT_ID_V1 + carId);
+        return headers;
+    }
+
+    private String getCarETag(Car car) {
+        return "\"" + car.getVersion() + "\"";
+    }
+
+    private Long parseVersion(String eTag) {
+        String value = eTag.trim();
+        if (value.startsWith("W/")) {
+            return null;
+        }
+        if (value.length() > 1 && value.startsWith("\"") && value.endsWith("\"")) {
+            value = value.substring(1, value.length() - 1);
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
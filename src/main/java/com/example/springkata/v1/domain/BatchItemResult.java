@@ -0,0 +1,18 @@
+package com.example.springkata.v1.domain;
+
+import lombok.*;
+
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResult {
+    private int index;
+
+    private Long id;
+
+    private BatchItemStatus status;
+
+    private String message;
+}
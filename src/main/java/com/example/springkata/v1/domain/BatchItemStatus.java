@@ -0,0 +1,9 @@
+package com.example.springkata.v1.domain;
+
+public enum BatchItemStatus {
+    CREATED,
+    UPDATED,
+    DELETED,
+    NOT_FOUND,
+    INVALID
+}
@@ -1,35 +1,74 @@
 package com.example.springkata.v1.domain;
 
 import java.util.Date;
+import java.util.Locale;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import com.example.springkata.v1.util.CacheNames;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import lombok.*;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheNames.CAR_ENTITY_REGION)
+@Table(indexes = {
+        @Index(name = "idx_car_make_key", columnList = "make_key, id"),
+        // max(updatedAt) of the collection versions
+        @Index(name = "idx_car_updated_at", columnList = "updated_at"),
+        @Index(name = "idx_car_make_key_updated_at", columnList = "make_key, updated_at")
+})
 @Getter
 @Setter
-@Builder
+@Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
 public class Car {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_seq")
+    @SequenceGenerator(name = "car_seq", sequenceName = "car_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank
     private String make;
 
+    @JsonIgnore
+    @Column(nullable = false)
+    private String makeKey;
+
     @NotBlank
     private String model;
 
+    @Version
+    private Long version;
+
     @CreationTimestamp
     @Column(updatable = false)
     private Date createdAt;
 
     @UpdateTimestamp
     private Date updatedAt;
+
+    public static String normalizeMake(String make) {
+        return make == null ? null : make.toLowerCase(Locale.ROOT);
+    }
+
+    public void setMake(String make) {
+        this.make = make;
+        this.makeKey = normalizeMake(make);
+    }
+
+    @PrePersist
+    void normalizeMakeKey() {
+        this.makeKey = normalizeMake(make);
+    }
 }
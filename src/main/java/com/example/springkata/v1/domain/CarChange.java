@@ -0,0 +1,37 @@
+package com.example.springkata.v1.domain;
+
+import java.util.Date;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Ids follow draw order, not commit order; readers stop below the first id of a still open transaction.
+@Entity
+@Table(name = "car_change")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarChange {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "car_change_seq")
+    @SequenceGenerator(name = "car_change_seq", sequenceName = "car_change_seq", allocationSize = 1)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long carId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private CarChangeType type;
+
+    private String make;
+
+    private String model;
+
+    private Long version;
+
+    @Column(nullable = false)
+    private Date occurredAt;
+}
@@ -0,0 +1,7 @@
+package com.example.springkata.v1.domain;
+
+public enum CarChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
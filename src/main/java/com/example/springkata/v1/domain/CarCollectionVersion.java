@@ -0,0 +1,15 @@
+package com.example.springkata.v1.domain;
+
+import java.util.Date;
+
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+public class CarCollectionVersion {
+    private Long count;
+
+    private Long maxId;
+
+    private Date lastUpdatedAt;
+}
@@ -0,0 +1,30 @@
+package com.example.springkata.v1.domain;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+
+@Getter
+public class CarMakeStats {
+    @JsonIgnore
+    private final String makeKey;
+    private final String make;
+    private final Long count;
+    private final Date firstCreatedAt;
+    private final Date lastCreatedAt;
+    private final Date lastUpdatedAt;
+    private final List<CarModelStats> models = new ArrayList<>();
+
+    public CarMakeStats(String makeKey, String make, Long count, Date firstCreatedAt, Date lastCreatedAt, Date lastUpdatedAt) {
+        this.makeKey = makeKey;
+        this.make = make;
+        this.count = count;
+        this.firstCreatedAt = firstCreatedAt;
+        this.lastCreatedAt = lastCreatedAt;
+        this.lastUpdatedAt = lastUpdatedAt;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.springkata.v1.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CarModelStats {
+    @JsonIgnore
+    private String makeKey;
+    private String model;
+    private Long count;
+}
@@ -0,0 +1,12 @@
+package com.example.springkata.v1.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CarSearchHit {
+    private Long id;
+    private String make;
+    private String model;
+}
@@ -0,0 +1,47 @@
+package com.example.springkata.v1.domain;
+
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CarStats {
+    private long count;
+    private Date firstCreatedAt;
+    private Date lastCreatedAt;
+    private Date lastUpdatedAt;
+    private List<CarMakeStats> makes;
+
+    public static CarStats from(List<CarMakeStats> makes, List<CarModelStats> models) {
+        Map<String, CarMakeStats> makesByKey = makes.stream()
+                .collect(Collectors.toMap(CarMakeStats::getMakeKey, Function.identity()));
+        for (CarModelStats model : models) {
+            CarMakeStats make = makesByKey.get(model.getMakeKey());
+            if (make != null) {
+                make.getModels().add(model);
+            }
+        }
+        long count = makes.stream().mapToLong(CarMakeStats::getCount).sum();
+        return new CarStats(count,
+                earliest(makes, CarMakeStats::getFirstCreatedAt),
+                latest(makes, CarMakeStats::getLastCreatedAt),
+                latest(makes, CarMakeStats::getLastUpdatedAt),
+                makes);
+    }
+
+    private static Date earliest(List<CarMakeStats> makes, Function<CarMakeStats, Date> date) {
+        return makes.stream().map(date).filter(Objects::nonNull).min(Comparator.naturalOrder()).orElse(null);
+    }
+
+    private static Date latest(List<CarMakeStats> makes, Function<CarMakeStats, Date> date) {
+        return makes.stream().map(date).filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+    }
+}
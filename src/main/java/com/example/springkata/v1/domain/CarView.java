@@ -0,0 +1,56 @@
+package com.example.springkata.v1.domain;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import lombok.*;
+
+@Getter
+@AllArgsConstructor
+public class CarView {
+    private static final Map<String, Function<CarView, Object>> FIELD_ACCESSORS = new LinkedHashMap<>();
+
+    static {
+        FIELD_ACCESSORS.put("id", CarView::getId);
+        FIELD_ACCESSORS.put("make", CarView::getMake);
+        FIELD_ACCESSORS.put("model", CarView::getModel);
+        FIELD_ACCESSORS.put("version", CarView::getVersion);
+        FIELD_ACCESSORS.put("createdAt", CarView::getCreatedAt);
+        FIELD_ACCESSORS.put("updatedAt", CarView::getUpdatedAt);
+    }
+
+    private Long id;
+
+    private String make;
+
+    private String model;
+
+    private Long version;
+
+    private Date createdAt;
+
+    private Date updatedAt;
+
+    public static CarView from(Car car) {
+        return new CarView(car.getId(), car.getMake(), car.getModel(), car.getVersion(), car.getCreatedAt(), car.getUpdatedAt());
+    }
+
+    public static Set<String> fieldNames() {
+        return Collections.unmodifiableSet(FIELD_ACCESSORS.keySet());
+    }
+
+    public Map<String, Object> select(Collection<String> fields) {
+        Map<String, Object> selected = new LinkedHashMap<>();
+        FIELD_ACCESSORS.forEach((name, accessor) -> {
+            if (fields.contains(name)) {
+                selected.put(name, accessor.apply(this));
+            }
+        });
+        return selected;
+    }
+}
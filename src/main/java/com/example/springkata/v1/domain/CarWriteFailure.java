@@ -0,0 +1,48 @@
+package com.example.springkata.v1.domain;
+
+import java.util.Date;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Entity
+@Table(name = "car_write_failure")
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CarWriteFailure {
+    public static final int MAX_ERROR_LENGTH = 1024;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long carId;
+
+    private String make;
+
+    private String model;
+
+    private Date createdAt;
+
+    @Column(nullable = false)
+    private Date failedAt;
+
+    @Column(length = MAX_ERROR_LENGTH)
+    private String error;
+
+    public static CarWriteFailure from(Car car, Exception cause) {
+        String error = String.valueOf(cause);
+        return CarWriteFailure.builder()
+                .carId(car.getId())
+                .make(car.getMake())
+                .model(car.getModel())
+                .createdAt(car.getCreatedAt())
+                .failedAt(new Date())
+                .error(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error)
+                .build();
+    }
+}
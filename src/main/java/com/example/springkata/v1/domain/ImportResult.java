@@ -0,0 +1,18 @@
+package com.example.springkata.v1.domain;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+    private long imported;
+
+    private long rejected;
+
+    private List<String> errors = new ArrayList<>();
+}
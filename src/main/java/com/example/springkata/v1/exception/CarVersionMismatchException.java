@@ -0,0 +1,7 @@
+package com.example.springkata.v1.exception;
+
+public class CarVersionMismatchException extends RuntimeException {
+    public CarVersionMismatchException(String message) {
+        super(message);
+    }
+}
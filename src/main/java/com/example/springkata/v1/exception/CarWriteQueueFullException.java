@@ -0,0 +1,7 @@
+package com.example.springkata.v1.exception;
+
+public class CarWriteQueueFullException extends RuntimeException {
+    public CarWriteQueueFullException(String message) {
+        super(message);
+    }
+}
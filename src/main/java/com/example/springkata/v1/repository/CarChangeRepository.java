@@ -0,0 +1,16 @@
+package com.example.springkata.v1.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.springkata.v1.domain.CarChange;
+
+public interface CarChangeRepository extends JpaRepository<CarChange, Long> {
+    List<CarChange> findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(Long after, Long upTo, Pageable pageable);
+
+    @Query("select coalesce(max(c.id), 0) from CarChange c")
+    Long findLastId();
+}
@@ -0,0 +1,47 @@
+package com.example.springkata.v1.repository;
+
+import java.util.function.LongSupplier;
+
+import org.springframework.util.Assert;
+
+// 53 bits, so JavaScript reads them exactly: 38 bits of 10 ms ticks since 2024 (~87 years), 7 worker, 8 sequence.
+public class CarIdGenerator {
+    static final long EPOCH_MILLIS = 1_704_067_200_000L;
+    static final long TICK_MILLIS = 10;
+    static final int TICK_BITS = 38;
+    static final int WORKER_BITS = 7;
+    static final int SEQUENCE_BITS = 8;
+    static final long MAX_TICK = (1L << TICK_BITS) - 1;
+    static final long MAX_WORKER_ID = (1L << WORKER_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long workerId;
+    private final LongSupplier clock;
+    private long lastTick = -1;
+    private long sequence;
+
+    public CarIdGenerator(long workerId) {
+        this(workerId, System::currentTimeMillis);
+    }
+
+    CarIdGenerator(long workerId, LongSupplier clock) {
+        Assert.isTrue(workerId >= 0 && workerId <= MAX_WORKER_ID, "Worker id must be between 0 and " + MAX_WORKER_ID + "!");
+        this.workerId = workerId;
+        this.clock = clock;
+    }
+
+    public synchronized long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) / TICK_MILLIS;
+        if (now > lastTick) {
+            lastTick = now;
+            sequence = 0;
+        } else {
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                lastTick++;
+            }
+        }
+        Assert.state(lastTick >= 0 && lastTick <= MAX_TICK, "Clock is outside the range of car ids!");
+        return (lastTick << (WORKER_BITS + SEQUENCE_BITS)) | (workerId << SEQUENCE_BITS) | sequence;
+    }
+}
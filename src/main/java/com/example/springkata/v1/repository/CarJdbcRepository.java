@@ -0,0 +1,61 @@
+package com.example.springkata.v1.repository;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.StatelessSession;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.Assert;
+
+import com.example.springkata.v1.domain.Car;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+
+@Repository
+@RequiredArgsConstructor
+public class CarJdbcRepository {
+    private static final String INSERT_CAR = "INSERT INTO car (id, make, make_key, model, version, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, 0, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public Long nextId() {
+        return nextIds(1).get(0);
+    }
+
+    // Hibernate's own generator, so JDBC and JPA inserts share one pooled optimizer; one session per block.
+    public List<Long> nextIds(int count) {
+        Assert.isTrue(count > 0, "Number of ids to reserve must be positive!");
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) sessionFactory.getMappingMetamodel()
+                .getEntityDescriptor(Car.class)
+                .getGenerator();
+        List<Long> ids = new ArrayList<>(count);
+        try (StatelessSession session = sessionFactory.openStatelessSession()) {
+            for (int i = 0; i < count; i++) {
+                ids.add((Long) generator.generate((SharedSessionContractImplementor) session, null));
+            }
+        }
+        return ids;
+    }
+
+    public void insertAll(List<Car> cars) {
+        Assert.notNull(cars, "Cars cannot be null when inserting in batch!");
+        jdbcTemplate.batchUpdate(INSERT_CAR, cars, cars.size(), (statement, car) -> {
+            Assert.notNull(car.getId(), "Car id has to be reserved before inserting!");
+            statement.setLong(1, car.getId());
+            statement.setString(2, car.getMake());
+            statement.setString(3, Car.normalizeMake(car.getMake()));
+            statement.setString(4, car.getModel());
+            statement.setTimestamp(5, new Timestamp(car.getCreatedAt().getTime()));
+            statement.setTimestamp(6, new Timestamp(car.getUpdatedAt().getTime()));
+        });
+    }
+}
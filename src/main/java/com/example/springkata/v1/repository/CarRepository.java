@@ -1,11 +1,78 @@
 package com.example.springkata.v1.repository;
 
+import static com.example.springkata.v1.util.CacheNames.CAR_QUERY_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.HibernateHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarCollectionVersion;
+import com.example.springkata.v1.domain.CarMakeStats;
+import com.example.springkata.v1.domain.CarModelStats;
+import com.example.springkata.v1.domain.CarView;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 public interface CarRepository extends JpaRepository<Car, Long> {
-    List<Car> findByMakeIgnoreCase(String make);
+    String STREAM_FETCH_SIZE = "500";
+
+    default List<Car> findByMakeIgnoreCase(String make) {
+        return findByMakeKey(Car.normalizeMake(make));
+    }
+
+    List<Car> findByMakeKey(String makeKey);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Car> findLockedById(Long id);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.example.springkata.v1.domain.CarView(c.id, c.make, c.model, c.version, c.createdAt, c.updatedAt) "
+            + "from Car c where c.id > :after order by c.id")
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = CAR_QUERY_REGION)})
+    List<CarView> findViewsAfter(@Param("after") Long after, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.example.springkata.v1.domain.CarView(c.id, c.make, c.model, c.version, c.createdAt, c.updatedAt) "
+            + "from Car c where c.makeKey = :makeKey and c.id > :after order by c.id")
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = CAR_QUERY_REGION)})
+    List<CarView> findViewsByMakeKeyAfter(@Param("makeKey") String makeKey, @Param("after") Long after, Pageable pageable);
+
+    @Transactional(readOnly = true)
+    @Query("select new com.example.springkata.v1.domain.CarCollectionVersion(count(c), max(c.id), max(c.updatedAt)) from Car c")
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = CAR_QUERY_REGION)})
+    CarCollectionVersion findVersion();
+
+    @Transactional(readOnly = true)
+    @Query("select new com.example.springkata.v1.domain.CarCollectionVersion(count(c), max(c.id), max(c.updatedAt)) from Car c where c.makeKey = :makeKey")
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"), @QueryHint(name = HINT_CACHE_REGION, value = CAR_QUERY_REGION)})
+    CarCollectionVersion findVersionByMakeKey(@Param("makeKey") String makeKey);
+
+    @Query("select new com.example.springkata.v1.domain.CarMakeStats(c.makeKey, min(c.make), count(c), min(c.createdAt), max(c.createdAt), max(c.updatedAt)) "
+            + "from Car c group by c.makeKey order by c.makeKey")
+    List<CarMakeStats> findMakeStats();
+
+    @Query("select new com.example.springkata.v1.domain.CarModelStats(c.makeKey, c.model, count(c)) "
+            + "from Car c group by c.makeKey, c.model order by c.makeKey, c.model")
+    List<CarModelStats> findModelStats();
+
+    @Query("select c from Car c order by c.id")
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Car> streamAll();
+
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    Stream<Car> streamByMakeKeyOrderByIdAsc(String makeKey);
 }
@@ -0,0 +1,8 @@
+package com.example.springkata.v1.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.example.springkata.v1.domain.CarWriteFailure;
+
+public interface CarWriteFailureRepository extends JpaRepository<CarWriteFailure, Long> {
+}
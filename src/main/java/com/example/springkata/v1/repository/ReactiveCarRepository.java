@@ -0,0 +1,45 @@
+package com.example.springkata.v1.repository;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+
+import com.example.springkata.v1.domain.Car;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCarRepository extends R2dbcRepository<Car, Long> {
+    Flux<Car> findAllByOrderByIdAsc();
+
+    Flux<Car> findByMakeKeyOrderByIdAsc(String makeKey);
+
+    Flux<Car> findByIdGreaterThanOrderByIdAsc(Long after, Pageable pageable);
+
+    Flux<Car> findByMakeKeyAndIdGreaterThanOrderByIdAsc(String makeKey, Long after, Pageable pageable);
+
+    @Query("SELECT NEXT VALUE FOR car_seq")
+    Mono<Long> nextId();
+
+    @Modifying
+    @Query("INSERT INTO car (id, make, make_key, model, version, created_at, updated_at) "
+            + "VALUES (:id, :make, :makeKey, :model, 0, :createdAt, :createdAt)")
+    Mono<Integer> insert(@Param("id") Long id, @Param("make") String make, @Param("makeKey") String makeKey,
+                         @Param("model") String model, @Param("createdAt") LocalDateTime createdAt);
+
+    // FINAL TABLE returns the new version with the update itself, and nothing when no row matched
+    @Query("SELECT version FROM FINAL TABLE (UPDATE car SET make = :make, make_key = :makeKey, model = :model, "
+            + "updated_at = :updatedAt, version = version + 1 WHERE id = :id)")
+    Mono<Long> updateById(@Param("id") Long id, @Param("make") String make, @Param("makeKey") String makeKey,
+                          @Param("model") String model, @Param("updatedAt") LocalDateTime updatedAt);
+
+    @Query("SELECT version FROM FINAL TABLE (UPDATE car SET make = :make, make_key = :makeKey, model = :model, "
+            + "updated_at = :updatedAt, version = version + 1 WHERE id = :id AND version = :version)")
+    Mono<Long> updateByIdAndVersion(@Param("id") Long id, @Param("version") Long version, @Param("make") String make,
+                                    @Param("makeKey") String makeKey, @Param("model") String model,
+                                    @Param("updatedAt") LocalDateTime updatedAt);
+}
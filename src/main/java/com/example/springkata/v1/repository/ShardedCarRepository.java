@@ -0,0 +1,279 @@
+package com.example.springkata.v1.repository;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.util.Assert;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarCollectionVersion;
+import com.example.springkata.v1.domain.CarMakeStats;
+import com.example.springkata.v1.domain.CarModelStats;
+import com.example.springkata.v1.domain.CarView;
+
+public class ShardedCarRepository implements AutoCloseable {
+    private static final String SELECT_CAR = "SELECT id, make, make_key, model, version, created_at, updated_at FROM car";
+    private static final String SELECT_VIEW = "SELECT id, make, model, version, created_at, updated_at FROM car";
+    private static final String SELECT_VERSION = "SELECT COUNT(*), MAX(id), MAX(updated_at) FROM car";
+    private static final String INSERT_CAR = "INSERT INTO car (id, make, make_key, model, version, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, 0, ?, ?)";
+    private static final String UPDATE_CAR = "UPDATE car SET make = ?, make_key = ?, model = ?, updated_at = ?, version = version + 1 "
+            + "WHERE id = ?";
+    private static final String UPDATE_CAR_VERSION = "SELECT version FROM FINAL TABLE (" + UPDATE_CAR + "%s)";
+    private static final String MAKE_STATS = "SELECT make_key, MIN(make), COUNT(*), MIN(created_at), MAX(created_at), MAX(updated_at) "
+            + "FROM car GROUP BY make_key";
+    private static final String MODEL_STATS = "SELECT make_key, model, COUNT(*) FROM car GROUP BY make_key, model";
+    private static final int STREAM_FETCH_SIZE = 500;
+    private static final RowMapper<Car> CAR_MAPPER = (rs, rowNum) -> Car.builder()
+            .id(rs.getLong("id"))
+            .make(rs.getString("make"))
+            .makeKey(rs.getString("make_key"))
+            .model(rs.getString("model"))
+            .version(rs.getLong("version"))
+            .createdAt(toDate(rs.getTimestamp("created_at")))
+            .updatedAt(toDate(rs.getTimestamp("updated_at")))
+            .build();
+    private static final RowMapper<CarView> VIEW_MAPPER = (rs, rowNum) -> new CarView(rs.getLong("id"),
+            rs.getString("make"), rs.getString("model"), rs.getLong("version"),
+            toDate(rs.getTimestamp("created_at")), toDate(rs.getTimestamp("updated_at")));
+
+    private final List<JdbcTemplate> shards;
+    private final CarIdGenerator idGenerator;
+    private final Duration fanOutTimeout;
+    private final ExecutorService fanOutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final List<AutoCloseable> resources;
+
+    public ShardedCarRepository(List<JdbcTemplate> shards, CarIdGenerator idGenerator, Duration fanOutTimeout,
+                                List<AutoCloseable> resources) {
+        Assert.notEmpty(shards, "At least one shard is needed!");
+        this.shards = List.copyOf(shards);
+        this.idGenerator = idGenerator;
+        this.fanOutTimeout = fanOutTimeout;
+        this.resources = List.copyOf(resources);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public int shardOf(Long id) {
+        Assert.notNull(id, "Car id cannot be null when looking up its shard!");
+        // murmur3 finalizer, the low bits of an id are mostly the per-millisecond sequence
+        long hash = id;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return (int) Math.floorMod(hash, (long) shards.size());
+    }
+
+    public Optional<Car> findById(Long id) {
+        return shard(id).query(SELECT_CAR + " WHERE id = ?", CAR_MAPPER, id).stream().findFirst();
+    }
+
+    public boolean existsById(Long id) {
+        Long count = shard(id).queryForObject("SELECT COUNT(*) FROM car WHERE id = ?", Long.class, id);
+        return count != null && count > 0;
+    }
+
+    public List<Car> findAll(String makeKey) {
+        List<List<Car>> results = makeKey == null
+                ? fanOut(shard -> shard.query(SELECT_CAR + " ORDER BY id", CAR_MAPPER))
+                : fanOut(shard -> shard.query(SELECT_CAR + " WHERE make_key = ? ORDER BY id", CAR_MAPPER, makeKey));
+        return mergeById(results, Car::getId, Integer.MAX_VALUE);
+    }
+
+    // Every shard returns its first limit cars after the cursor, so the merged first limit are exact.
+    public List<CarView> findViewsAfter(String makeKey, Long after, int limit) {
+        List<List<CarView>> results = makeKey == null
+                ? fanOut(shard -> shard.query(SELECT_VIEW + " WHERE id > ? ORDER BY id LIMIT ?", VIEW_MAPPER, after, limit))
+                : fanOut(shard -> shard.query(SELECT_VIEW + " WHERE make_key = ? AND id > ? ORDER BY id LIMIT ?", VIEW_MAPPER, makeKey, after, limit));
+        return mergeById(results, CarView::getId, limit);
+    }
+
+    public CarCollectionVersion findVersion(String makeKey) {
+        RowMapper<CarCollectionVersion> mapper = (rs, rowNum) -> new CarCollectionVersion(rs.getLong(1),
+                rs.getObject(2, Long.class), toDate(rs.getTimestamp(3)));
+        List<CarCollectionVersion> versions = makeKey == null
+                ? fanOut(shard -> shard.queryForObject(SELECT_VERSION, mapper))
+                : fanOut(shard -> shard.queryForObject(SELECT_VERSION + " WHERE make_key = ?", mapper, makeKey));
+        return new CarCollectionVersion(versions.stream().mapToLong(CarCollectionVersion::getCount).sum(),
+                max(versions, CarCollectionVersion::getMaxId),
+                max(versions, CarCollectionVersion::getLastUpdatedAt));
+    }
+
+    public List<CarMakeStats> findMakeStats() {
+        RowMapper<CarMakeStats> mapper = (rs, rowNum) -> new CarMakeStats(rs.getString(1), rs.getString(2), rs.getLong(3),
+                toDate(rs.getTimestamp(4)), toDate(rs.getTimestamp(5)), toDate(rs.getTimestamp(6)));
+        Map<String, CarMakeStats> makes = fanOut(shard -> shard.query(MAKE_STATS, mapper)).stream()
+                .flatMap(List::stream)
+                .collect(Collectors.toMap(CarMakeStats::getMakeKey, Function.identity(), (left, right) -> new CarMakeStats(
+                        left.getMakeKey(),
+                        min(left.getMake(), right.getMake()),
+                        left.getCount() + right.getCount(),
+                        min(left.getFirstCreatedAt(), right.getFirstCreatedAt()),
+                        max(left.getLastCreatedAt(), right.getLastCreatedAt()),
+                        max(left.getLastUpdatedAt(), right.getLastUpdatedAt()))));
+        return makes.values().stream()
+                .sorted(Comparator.comparing(CarMakeStats::getMakeKey))
+                .toList();
+    }
+
+    public List<CarModelStats> findModelStats() {
+        RowMapper<CarModelStats> mapper = (rs, rowNum) -> new CarModelStats(rs.getString(1), rs.getString(2), rs.getLong(3));
+        Map<List<String>, CarModelStats> models = new LinkedHashMap<>();
+        for (List<CarModelStats> shardModels : fanOut(shard -> shard.query(MODEL_STATS, mapper))) {
+            for (CarModelStats model : shardModels) {
+                models.merge(List.of(model.getMakeKey(), Objects.toString(model.getModel(), "")), model,
+                        (left, right) -> new CarModelStats(left.getMakeKey(), left.getModel(), left.getCount() + right.getCount()));
+            }
+        }
+        return models.values().stream()
+                .sorted(Comparator.comparing(CarModelStats::getMakeKey)
+                        .thenComparing(CarModelStats::getModel, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    public void forEach(String makeKey, Consumer<Car> consumer) {
+        for (JdbcTemplate shard : shards) {
+            JdbcTemplate streaming = new JdbcTemplate(Objects.requireNonNull(shard.getDataSource()));
+            streaming.setFetchSize(STREAM_FETCH_SIZE);
+            if (makeKey == null) {
+                streaming.query(SELECT_CAR + " ORDER BY id", (ResultSet rs) -> consumer.accept(CAR_MAPPER.mapRow(rs, 0)));
+            } else {
+                streaming.query(SELECT_CAR + " WHERE make_key = ? ORDER BY id",
+                        (ResultSet rs) -> consumer.accept(CAR_MAPPER.mapRow(rs, 0)), makeKey);
+            }
+        }
+    }
+
+    public long count() {
+        return fanOut(shard -> shard.queryForObject("SELECT COUNT(*) FROM car", Long.class)).stream()
+                .mapToLong(Long::longValue)
+                .sum();
+    }
+
+    public Car insert(Car car) {
+        Assert.notNull(car, "Car cannot be null when persisting!");
+        Date now = new Date();
+        Car persistedCar = Car.builder()
+                .id(idGenerator.nextId())
+                .make(car.getMake())
+                .makeKey(Car.normalizeMake(car.getMake()))
+                .model(car.getModel())
+                .version(0L)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        shard(persistedCar.getId()).update(INSERT_CAR, persistedCar.getId(), persistedCar.getMake(), persistedCar.getMakeKey(),
+                persistedCar.getModel(), new Timestamp(now.getTime()), new Timestamp(now.getTime()));
+        return persistedCar;
+    }
+
+    // FINAL TABLE returns the new version with the update itself, and nothing when no row matched
+    public Optional<Long> updateById(Long id, Long expectedVersion, String make, String model, Date updatedAt) {
+        Timestamp timestamp = new Timestamp(updatedAt.getTime());
+        List<Long> versions;
+        if (expectedVersion == null) {
+            versions = shard(id).queryForList(String.format(UPDATE_CAR_VERSION, ""), Long.class,
+                    make, Car.normalizeMake(make), model, timestamp, id);
+        } else {
+            versions = shard(id).queryForList(String.format(UPDATE_CAR_VERSION, " AND version = ?"), Long.class,
+                    make, Car.normalizeMake(make), model, timestamp, id, expectedVersion);
+        }
+        return versions.stream().findFirst();
+    }
+
+    public void deleteById(Long id) {
+        shard(id).update("DELETE FROM car WHERE id = ?", id);
+    }
+
+    @Override
+    public void close() throws Exception {
+        fanOutExecutor.shutdownNow();
+        for (AutoCloseable resource : resources) {
+            resource.close();
+        }
+    }
+
+    private JdbcTemplate shard(Long id) {
+        return shards.get(shardOf(id));
+    }
+
+    // One failing or slow shard fails the whole query rather than returning a partial result.
+    private <T> List<T> fanOut(Function<JdbcTemplate, T> query) {
+        List<CompletableFuture<T>> futures = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), fanOutExecutor))
+                .toList();
+        CompletableFuture<Void> all = CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+        try {
+            all.get(fanOutTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new QueryTimeoutException("Interrupted while waiting for shards", e);
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw new QueryTimeoutException("Shards did not answer within " + fanOutTimeout, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    private static <T> List<T> mergeById(List<List<T>> results, Function<T, Long> id, int limit) {
+        List<T> merged = new ArrayList<>();
+        results.forEach(merged::addAll);
+        merged.sort(Comparator.comparing(id));
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    private static <T, V extends Comparable<V>> V max(List<T> values, Function<T, V> value) {
+        return values.stream().map(value).filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+    }
+
+    private static <V extends Comparable<? super V>> V min(V left, V right) {
+        return pick(left, right, (a, b) -> a.compareTo(b) <= 0 ? a : b);
+    }
+
+    private static <V extends Comparable<? super V>> V max(V left, V right) {
+        return pick(left, right, (a, b) -> a.compareTo(b) >= 0 ? a : b);
+    }
+
+    private static <V> V pick(V left, V right, BinaryOperator<V> chooser) {
+        if (left == null) {
+            return right;
+        }
+        return right == null ? left : chooser.apply(left, right);
+    }
+
+    private static Date toDate(Timestamp timestamp) {
+        return timestamp == null ? null : new Date(timestamp.getTime());
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.springkata.v1.service;
+
+import java.util.List;
+
+import com.example.springkata.v1.domain.BatchItemResult;
+import com.example.springkata.v1.domain.Car;
+
+public interface CarBatchService {
+    List<BatchItemResult> saveAll(List<Car> cars);
+
+    List<BatchItemResult> updateAll(List<Car> cars);
+
+    List<BatchItemResult> deleteAllById(List<Long> ids);
+}
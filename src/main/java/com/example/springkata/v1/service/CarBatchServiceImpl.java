@@ -0,0 +1,138 @@
+package com.example.springkata.v1.service;
+
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_ID;
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_MAKE;
+import static com.example.springkata.v1.util.MetricNames.CAR_SERVICE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import com.example.springkata.v1.domain.BatchItemResult;
+import com.example.springkata.v1.domain.BatchItemStatus;
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarChangeType;
+import com.example.springkata.v1.repository.CarRepository;
+
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@ConditionalOnProperty(prefix = "cars.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+@Timed(value = CAR_SERVICE, histogram = true)
+@RequiredArgsConstructor
+public class CarBatchServiceImpl implements CarBatchService {
+    public static final int CHUNK_SIZE = 500;
+    private final CarRepository carRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final CarChangeService carChangeService;
+
+    @Override
+    @CacheEvict(value = CARS_BY_MAKE, allEntries = true)
+    public List<BatchItemResult> saveAll(List<Car> cars) {
+        Assert.notNull(cars, "Cars cannot be null when persisting in batch!");
+        List<BatchItemResult> results = new ArrayList<>(cars.size());
+        for (int from = 0; from < cars.size(); from += CHUNK_SIZE) {
+            int offset = from;
+            List<Car> chunk = cars.subList(from, Math.min(cars.size(), from + CHUNK_SIZE));
+            List<Car> persistedCars = transactionTemplate.execute(status -> {
+                List<Car> dtos = chunk.stream()
+                        .map(car -> Car.builder()
+                                .make(car.getMake())
+                                .model(car.getModel())
+                                .build())
+                        .toList();
+                List<Car> persistedChunk = carRepository.saveAll(dtos);
+                carChangeService.recordAll(CarChangeType.CREATED, persistedChunk);
+                flushAndClear();
+                return persistedChunk;
+            });
+            for (int i = 0; i < persistedCars.size(); i++) {
+                results.add(result(offset + i, persistedCars.get(i).getId(), BatchItemStatus.CREATED));
+            }
+        }
+        return results;
+    }
+
+    @Override
+    @CacheEvict(value = {CARS_BY_ID, CARS_BY_MAKE}, allEntries = true)
+    public List<BatchItemResult> updateAll(List<Car> cars) {
+        Assert.notNull(cars, "Cars cannot be null when updating in batch!");
+        List<BatchItemResult> results = new ArrayList<>(cars.size());
+        for (int from = 0; from < cars.size(); from += CHUNK_SIZE) {
+            int offset = from;
+            List<Car> chunk = cars.subList(from, Math.min(cars.size(), from + CHUNK_SIZE));
+            List<Car> updatedCars = new ArrayList<>(chunk.size());
+            transactionTemplate.executeWithoutResult(status -> {
+                Set<Long> ids = chunk.stream().map(Car::getId).collect(Collectors.toSet());
+                Map<Long, Car> existingCars = carRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Car::getId, Function.identity()));
+                for (int i = 0; i < chunk.size(); i++) {
+                    Car car = chunk.get(i);
+                    Car existingCar = existingCars.get(car.getId());
+                    if (existingCar == null) {
+                        results.add(result(offset + i, car.getId(), BatchItemStatus.NOT_FOUND));
+                        continue;
+                    }
+                    existingCar.setMake(car.getMake());
+                    existingCar.setModel(car.getModel());
+                    updatedCars.add(existingCar);
+                    results.add(result(offset + i, car.getId(), BatchItemStatus.UPDATED));
+                }
+                // flushed first so the recorded versions are the incremented ones
+                entityManager.flush();
+                carChangeService.recordAll(CarChangeType.UPDATED, updatedCars);
+                flushAndClear();
+            });
+        }
+        return results;
+    }
+
+    @Override
+    @CacheEvict(value = {CARS_BY_ID, CARS_BY_MAKE}, allEntries = true)
+    public List<BatchItemResult> deleteAllById(List<Long> ids) {
+        Assert.notNull(ids, "Car ids cannot be null when deleting in batch!");
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            int offset = from;
+            List<Long> chunk = ids.subList(from, Math.min(ids.size(), from + CHUNK_SIZE));
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Car> existingCars = carRepository.findAllById(chunk);
+                // removed as entities, so only their second-level cache entries are evicted
+                carRepository.deleteAll(existingCars);
+                Set<Long> existingIds = existingCars.stream().map(Car::getId).collect(Collectors.toSet());
+                carChangeService.recordDeleted(existingIds);
+                for (int i = 0; i < chunk.size(); i++) {
+                    Long id = chunk.get(i);
+                    BatchItemStatus itemStatus = existingIds.contains(id) ? BatchItemStatus.DELETED : BatchItemStatus.NOT_FOUND;
+                    results.add(result(offset + i, id, itemStatus));
+                }
+            });
+        }
+        return results;
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private BatchItemResult result(int index, Long id, BatchItemStatus status) {
+        return BatchItemResult.builder()
+                .index(index)
+                .id(id)
+                .status(status)
+                .build();
+    }
+}
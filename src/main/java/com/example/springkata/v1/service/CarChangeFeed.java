@@ -0,0 +1,142 @@
+package com.example.springkata.v1.service;
+
+import static com.example.springkata.v1.util.MetricNames.CAR_CHANGES_SUBSCRIBERS;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.example.springkata.config.ReplicaRoutingDataSource;
+import com.example.springkata.v1.domain.CarChange;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+// Live pushes read the table back: after-commit callbacks may run out of order, change ids do not.
+@Slf4j
+@Service
+@Profile("!reactive")
+@ConditionalOnProperty(prefix = "cars.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class CarChangeFeed {
+    public static final String CHANGE_EVENT = "change";
+    private static final int REPLAY_PAGE_SIZE = 500;
+
+    private final CarChangeService carChangeService;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean catchUpQueued = new AtomicBoolean();
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(Thread.ofPlatform()
+            .name("car-change-feed")
+            .daemon(true)
+            .factory());
+
+    public CarChangeFeed(CarChangeService carChangeService, MeterRegistry meterRegistry) {
+        this.carChangeService = carChangeService;
+        Gauge.builder(CAR_CHANGES_SUBSCRIBERS, subscribers, List::size).register(meterRegistry);
+    }
+
+    public SseEmitter subscribe(Long cursor) {
+        Assert.notNull(cursor, "Cursor cannot be null when subscribing to changes!");
+        Subscriber subscriber = new Subscriber(new SseEmitter(), cursor);
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onTimeout(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        dispatcher.execute(() -> replay(subscriber));
+        return subscriber.emitter;
+    }
+
+    // after completion rather than commit: a rollback moves the watermark past changes it was holding back
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION)
+    void onChangesCommitted(CarChangesCommittedEvent event) {
+        // one queued catch-up covers every commit before it runs
+        if (catchUpQueued.compareAndSet(false, true)) {
+            dispatcher.execute(this::catchUp);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+    }
+
+    private void replay(Subscriber subscriber) {
+        List<CarChange> changes;
+        do {
+            changes = findSince(subscriber.lastSentId);
+            if (!send(subscriber, changes)) {
+                return;
+            }
+        } while (changes.size() == REPLAY_PAGE_SIZE);
+        // changes committed while replaying are delivered by a catch-up queued behind this task
+        subscribers.add(subscriber);
+    }
+
+    private void catchUp() {
+        catchUpQueued.set(false);
+        long cursor = subscribers.stream().mapToLong(subscriber -> subscriber.lastSentId).min().orElse(-1);
+        if (cursor < 0) {
+            return;
+        }
+        List<CarChange> changes;
+        do {
+            changes = findSince(cursor);
+            List<CarChange> page = changes;
+            subscribers.forEach(subscriber -> send(subscriber, page));
+            if (!changes.isEmpty()) {
+                cursor = changes.get(changes.size() - 1).getId();
+            }
+        } while (changes.size() == REPLAY_PAGE_SIZE);
+    }
+
+    private List<CarChange> findSince(long cursor) {
+        // a lagging replica would hide changes that were just committed
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.pinToPrimary()) {
+            return carChangeService.findSince(cursor, REPLAY_PAGE_SIZE);
+        }
+    }
+
+    private boolean send(Subscriber subscriber, List<CarChange> changes) {
+        try {
+            for (CarChange change : changes) {
+                if (change.getId() <= subscriber.lastSentId) {
+                    continue;
+                }
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(String.valueOf(change.getId()))
+                        .name(CHANGE_EVENT)
+                        .data(change, MediaType.APPLICATION_JSON));
+                subscriber.lastSentId = change.getId();
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping change feed subscriber at cursor {}", subscriber.lastSentId, e);
+            subscribers.remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        }
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private long lastSentId;
+
+        private Subscriber(SseEmitter emitter, long lastSentId) {
+            this.emitter = emitter;
+            this.lastSentId = lastSentId;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.springkata.v1.service;
+
+import java.util.Collection;
+import java.util.List;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarChange;
+import com.example.springkata.v1.domain.CarChangeType;
+
+public interface CarChangeService {
+    void recordAll(CarChangeType type, Collection<Car> cars);
+
+    void recordDeleted(Collection<Long> carIds);
+
+    List<CarChange> findSince(Long cursor, int limit);
+
+    Long findLastCursor();
+}
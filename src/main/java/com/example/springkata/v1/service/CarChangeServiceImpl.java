@@ -0,0 +1,136 @@
+package com.example.springkata.v1.service;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarChange;
+import com.example.springkata.v1.domain.CarChangeType;
+import com.example.springkata.v1.repository.CarChangeRepository;
+
+import lombok.RequiredArgsConstructor;
+
+@Service
+@RequiredArgsConstructor
+public class CarChangeServiceImpl implements CarChangeService {
+    private final CarChangeRepository carChangeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    // Commit watermark: readers only see ids below the first one a still open transaction drew. Ids are drawn
+    // and registered under drawLock, so an id drawn later is always above lastDrawnId. This covers the writers
+    // of this instance, as the after-commit feed does.
+    private final Object drawLock = new Object();
+    private final NavigableSet<Long> inFlightIds = new TreeSet<>();
+    private long lastDrawnId;
+
+    @EventListener(ApplicationStartedEvent.class)
+    @Transactional(readOnly = true)
+    public void initWatermark() {
+        Long lastId = carChangeRepository.findLastId();
+        synchronized (drawLock) {
+            lastDrawnId = Math.max(lastDrawnId, lastId);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(CarChangeType type, Collection<Car> cars) {
+        Assert.notNull(type, "Change type cannot be null when recording changes!");
+        Assert.notNull(cars, "Cars cannot be null when recording changes!");
+        Assert.isTrue(type != CarChangeType.DELETED, "Deletes are recorded by car id!");
+        Date occurredAt = new Date();
+        record(cars.stream()
+                .map(car -> CarChange.builder()
+                        .carId(car.getId())
+                        .type(type)
+                        .make(car.getMake())
+                        .model(car.getModel())
+                        .version(car.getVersion())
+                        .occurredAt(occurredAt)
+                        .build())
+                .toList());
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDeleted(Collection<Long> carIds) {
+        Assert.notNull(carIds, "Car ids cannot be null when recording deletes!");
+        Date occurredAt = new Date();
+        record(carIds.stream()
+                .map(carId -> CarChange.builder()
+                        .carId(carId)
+                        .type(CarChangeType.DELETED)
+                        .occurredAt(occurredAt)
+                        .build())
+                .toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<CarChange> findSince(Long cursor, int limit) {
+        Assert.notNull(cursor, "Cursor cannot be null when reading changes!");
+        Assert.isTrue(limit > 0, "Page limit must be positive!");
+        // taken before the query, so a change that commits meanwhile behind an open one stays hidden too
+        long watermark = findWatermark();
+        if (cursor >= watermark) {
+            return List.of();
+        }
+        return carChangeRepository.findByIdGreaterThanAndIdLessThanEqualOrderByIdAsc(cursor, watermark, PageRequest.ofSize(limit));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Long findLastCursor() {
+        return Math.min(carChangeRepository.findLastId(), findWatermark());
+    }
+
+    long findWatermark() {
+        synchronized (drawLock) {
+            return inFlightIds.isEmpty() ? lastDrawnId : inFlightIds.first() - 1;
+        }
+    }
+
+    private void record(List<CarChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        List<CarChange> saved;
+        long firstId;
+        synchronized (drawLock) {
+            // persisting draws the ids from the sequence; the rows are only written at flush
+            saved = carChangeRepository.saveAll(changes);
+            firstId = saved.get(0).getId();
+            inFlightIds.add(firstId);
+            lastDrawnId = Math.max(lastDrawnId, saved.get(saved.size() - 1).getId());
+        }
+        // registered before the event is published, so the watermark moves before any listener reads the feed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                synchronized (drawLock) {
+                    inFlightIds.remove(firstId);
+                }
+            }
+        });
+        eventPublisher.publishEvent(new CarChangesCommittedEvent(saved));
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.springkata.v1.service;
+
+import java.util.List;
+
+import com.example.springkata.v1.domain.CarChange;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+@Getter
+@RequiredArgsConstructor
+public class CarChangesCommittedEvent {
+    private final List<CarChange> changes;
+}
@@ -0,0 +1,12 @@
+package com.example.springkata.v1.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.example.springkata.v1.domain.ImportResult;
+
+public interface CarImportService {
+    ImportResult importNdjson(InputStream inputStream) throws IOException;
+
+    ImportResult importCsv(InputStream inputStream) throws IOException;
+}
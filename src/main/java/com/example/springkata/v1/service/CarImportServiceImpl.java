@@ -0,0 +1,126 @@
+package com.example.springkata.v1.service;
+
+import static com.example.springkata.v1.service.CarBatchServiceImpl.CHUNK_SIZE;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.ImportResult;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+
+@Service
+@ConditionalOnProperty(prefix = "cars.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CarImportServiceImpl implements CarImportService {
+    public static final int MAX_REPORTED_ERRORS = 100;
+    private static final ObjectReader CSV_READER = new CsvMapper()
+            .readerFor(Car.class)
+            .with(CsvSchema.emptySchema().withHeader())
+            .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+
+    private final CarBatchService carBatchService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+
+    @Override
+    public ImportResult importNdjson(InputStream inputStream) throws IOException {
+        Assert.notNull(inputStream, "Input stream cannot be null when importing!");
+        ImportResult result = new ImportResult();
+        List<Car> chunk = new ArrayList<>(CHUNK_SIZE);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                accept(result, chunk, lineNumber, objectMapper.readValue(line, Car.class));
+            } catch (JsonProcessingException e) {
+                reject(result, lineNumber, "malformed JSON");
+            }
+        }
+        flush(result, chunk);
+        return result;
+    }
+
+    @Override
+    public ImportResult importCsv(InputStream inputStream) throws IOException {
+        Assert.notNull(inputStream, "Input stream cannot be null when importing!");
+        ImportResult result = new ImportResult();
+        List<Car> chunk = new ArrayList<>(CHUNK_SIZE);
+        // the header occupies line 1
+        long lineNumber = 1;
+        try (MappingIterator<Car> rows = CSV_READER.readValues(inputStream)) {
+            while (true) {
+                try {
+                    if (!rows.hasNextValue()) {
+                        break;
+                    }
+                    lineNumber++;
+                    accept(result, chunk, lineNumber, rows.nextValue());
+                } catch (JsonProcessingException | RuntimeJsonMappingException e) {
+                    reject(result, lineNumber, "malformed CSV row");
+                }
+            }
+        }
+        flush(result, chunk);
+        return result;
+    }
+
+    private void accept(ImportResult result, List<Car> chunk, long lineNumber, Car car) {
+        Set<ConstraintViolation<Car>> violations = car == null ? Set.of() : validator.validate(car);
+        if (car == null || !violations.isEmpty()) {
+            String message = violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining(", "));
+            reject(result, lineNumber, car == null ? "empty row" : message);
+            return;
+        }
+        chunk.add(car);
+        if (chunk.size() == CHUNK_SIZE) {
+            flush(result, chunk);
+        }
+    }
+
+    private void reject(ImportResult result, long lineNumber, String message) {
+        result.setRejected(result.getRejected() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add("line " + lineNumber + ": " + message);
+        }
+    }
+
+    private void flush(ImportResult result, List<Car> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        carBatchService.saveAll(chunk);
+        result.setImported(result.getImported() + chunk.size());
+        chunk.clear();
+    }
+}
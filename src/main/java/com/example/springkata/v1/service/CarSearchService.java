@@ -0,0 +1,16 @@
+package com.example.springkata.v1.service;
+
+import java.util.List;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarSearchHit;
+
+public interface CarSearchService {
+    List<CarSearchHit> search(String query, int limit);
+
+    void index(Car car);
+
+    void remove(Long carId);
+
+    void rebuild();
+}
@@ -0,0 +1,489 @@
+package com.example.springkata.v1.service;
+
+import static com.example.springkata.v1.util.MetricNames.CAR_SERVICE;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarChange;
+import com.example.springkata.v1.domain.CarChangeType;
+import com.example.springkata.v1.domain.CarSearchHit;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@Slf4j
+@Service
+@Timed(value = CAR_SERVICE, histogram = true)
+@RequiredArgsConstructor
+public class CarSearchServiceImpl implements CarSearchService {
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final int MIN_FUZZY_TOKEN_LENGTH = 3;
+    private static final int TWO_EDITS_TOKEN_LENGTH = 6;
+    private static final int GRAM_LENGTH = 3;
+    private static final String GRAM_PADDING = "\u0000".repeat(GRAM_LENGTH - 1);
+
+    // looked up lazily: the sharded car service indexes its own writes, so it depends on this one
+    private final ObjectProvider<CarService> carService;
+    private final Object rebuildLock = new Object();
+    private volatile Index index = new Index();
+    // writes seen while a rebuild streams its snapshot, replayed onto the new index before it is swapped in
+    private List<Consumer<Index>> writesDuringRebuild;
+
+    @Override
+    public List<CarSearchHit> search(String query, int limit) {
+        Assert.hasText(query, "Search query cannot be blank!");
+        Assert.isTrue(limit > 0, "Search limit must be positive!");
+        return index.search(tokenize(query), limit);
+    }
+
+    @Override
+    public void index(Car car) {
+        Assert.notNull(car, "Car cannot be null when indexing!");
+        Assert.notNull(car.getId(), "Car id cannot be null when indexing!");
+        Long id = car.getId();
+        String make = car.getMake();
+        String model = car.getModel();
+        write(index -> index.put(id, make, model));
+    }
+
+    @Override
+    public void remove(Long carId) {
+        Assert.notNull(carId, "Car id cannot be null when removing from index!");
+        write(index -> index.remove(carId));
+    }
+
+    @TransactionalEventListener
+    void onChangesCommitted(CarChangesCommittedEvent event) {
+        for (CarChange change : event.getChanges()) {
+            Long id = change.getCarId();
+            if (change.getType() == CarChangeType.DELETED) {
+                write(index -> index.remove(id));
+            } else {
+                write(index -> index.put(id, change.getMake(), change.getModel()));
+            }
+        }
+    }
+
+    // goes through the car service, so it reads the shards in sharded mode and the JPA data source otherwise
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startedAt = System.nanoTime();
+        synchronized (rebuildLock) {
+            writesDuringRebuild = new ArrayList<>();
+        }
+        Index rebuilt = new Index();
+        try {
+            carService.getObject().streamAll(null, car -> rebuilt.put(car.getId(), car.getMake(), car.getModel()));
+        } catch (RuntimeException e) {
+            synchronized (rebuildLock) {
+                writesDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (rebuildLock) {
+            writesDuringRebuild.forEach(write -> write.accept(rebuilt));
+            writesDuringRebuild = null;
+            index = rebuilt;
+        }
+        log.info("Indexed {} cars with {} terms for search in {} ms", rebuilt.cars.size(), rebuilt.terms.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+    }
+
+    int termCount() {
+        return index.terms.size();
+    }
+
+    int internedCount() {
+        return index.strings.size();
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> grams(String term) {
+        String padded = GRAM_PADDING + term + GRAM_PADDING;
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    static int editDistance(String left, String right, int maxDistance) {
+        if (Math.abs(left.length() - right.length()) > maxDistance) {
+            return maxDistance + 1;
+        }
+        int[] previous = new int[right.length() + 1];
+        int[] current = new int[right.length() + 1];
+        for (int j = 0; j <= right.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= left.length(); i++) {
+            current[0] = i;
+            int rowMinimum = current[0];
+            for (int j = 1; j <= right.length(); j++) {
+                int substitution = previous[j - 1] + (left.charAt(i - 1) == right.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+                rowMinimum = Math.min(rowMinimum, current[j]);
+            }
+            if (rowMinimum > maxDistance) {
+                return maxDistance + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[right.length()];
+    }
+
+    private void write(Consumer<Index> write) {
+        Index current;
+        synchronized (rebuildLock) {
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(write);
+            }
+            current = index;
+        }
+        write.accept(current);
+    }
+
+    private static class Index {
+        private final ConcurrentMap<Long, IndexedCar> cars = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Posting> postings = new ConcurrentHashMap<>();
+        private final NavigableSet<String> terms = new ConcurrentSkipListSet<>();
+        private final ConcurrentMap<String, Set<String>> termsByGram = new ConcurrentHashMap<>();
+        private final ConcurrentMap<String, Interned> strings = new ConcurrentHashMap<>();
+
+        List<CarSearchHit> search(Set<String> queryTokens, int limit) {
+            List<Set<String>> matchedTerms = new ArrayList<>(queryTokens.size());
+            for (String token : queryTokens) {
+                Set<String> matches = matchTerms(token);
+                if (matches.isEmpty()) {
+                    return List.of();
+                }
+                matchedTerms.add(matches);
+            }
+            if (matchedTerms.isEmpty()) {
+                return List.of();
+            }
+            // walk the ids of the most selective token and check the others against each candidate
+            Set<String> driver = matchedTerms.stream().min(Comparator.comparingLong(this::countIds)).orElseThrow();
+            List<CarSearchHit> hits = new ArrayList<>(Math.min(limit, 64));
+            Iterator<Long> ids = mergedIds(driver);
+            while (ids.hasNext() && hits.size() < limit) {
+                Long id = ids.next();
+                IndexedCar car = cars.get(id);
+                if (car != null && matchesAll(car, matchedTerms)) {
+                    hits.add(new CarSearchHit(id, car.make(), car.model()));
+                }
+            }
+            return hits;
+        }
+
+        void put(Long id, String make, String model) {
+            IndexedCar indexedCar = toIndexedCar(make, model);
+            IndexedCar previous = cars.put(id, indexedCar);
+            if (previous != null) {
+                for (String term : previous.terms()) {
+                    if (!indexedCar.terms().contains(term)) {
+                        removePosting(term, id);
+                    }
+                }
+                release(previous);
+            }
+            for (String term : indexedCar.terms()) {
+                addPosting(term, id);
+            }
+        }
+
+        void remove(Long id) {
+            IndexedCar previous = cars.remove(id);
+            if (previous != null) {
+                for (String term : previous.terms()) {
+                    removePosting(term, id);
+                }
+                release(previous);
+            }
+        }
+
+        private Set<String> matchTerms(String token) {
+            Set<String> matches = new HashSet<>(terms.subSet(token, true, token + Character.MAX_VALUE, false));
+            if (token.length() < MIN_FUZZY_TOKEN_LENGTH) {
+                return matches;
+            }
+            int maxEdits = token.length() >= TWO_EDITS_TOKEN_LENGTH ? 2 : 1;
+            for (String candidate : fuzzyCandidates(token, maxEdits)) {
+                if (!matches.contains(candidate) && editDistance(token, candidate, maxEdits) <= maxEdits) {
+                    matches.add(candidate);
+                }
+            }
+            return matches;
+        }
+
+        // An edit destroys at most GRAM_LENGTH trigrams, so a match shares all but maxEdits * GRAM_LENGTH of them.
+        private Collection<String> fuzzyCandidates(String token, int maxEdits) {
+            Set<String> tokenGrams = grams(token);
+            int minSharedGrams = tokenGrams.size() - maxEdits * GRAM_LENGTH;
+            if (minSharedGrams <= 0) {
+                // only highly repetitive tokens such as "aaaaaa" get here
+                return terms;
+            }
+            List<Set<String>> gramTerms = new ArrayList<>(tokenGrams.size());
+            for (String gram : tokenGrams) {
+                gramTerms.add(termsByGram.getOrDefault(gram, Set.of()));
+            }
+            gramTerms.sort(Comparator.comparingInt(Set::size));
+            int probes = tokenGrams.size() - minSharedGrams + 1;
+            Map<String, Integer> sharedGrams = new HashMap<>();
+            for (Set<String> rareGramTerms : gramTerms.subList(0, probes)) {
+                for (String term : rareGramTerms) {
+                    if (Math.abs(term.length() - token.length()) <= maxEdits) {
+                        sharedGrams.merge(term, 1, Integer::sum);
+                    }
+                }
+            }
+            List<String> candidates = new ArrayList<>();
+            sharedGrams.forEach((term, shared) -> {
+                for (int i = probes; i < gramTerms.size() && shared < minSharedGrams; i++) {
+                    if (gramTerms.get(i).contains(term)) {
+                        shared++;
+                    }
+                }
+                if (shared >= minSharedGrams) {
+                    candidates.add(term);
+                }
+            });
+            return candidates;
+        }
+
+        private long countIds(Set<String> matchedTerms) {
+            long count = 0;
+            for (String term : matchedTerms) {
+                Posting posting = postings.get(term);
+                if (posting != null) {
+                    count += posting.size.get();
+                }
+            }
+            return count;
+        }
+
+        private boolean matchesAll(IndexedCar car, List<Set<String>> matchedTerms) {
+            for (Set<String> matches : matchedTerms) {
+                if (!containsAny(car.terms(), matches)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean containsAny(Set<String> carTerms, Set<String> matches) {
+            for (String term : carTerms) {
+                if (matches.contains(term)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private Iterator<Long> mergedIds(Collection<String> matchedTerms) {
+            List<Iterator<Long>> iterators = new ArrayList<>(matchedTerms.size());
+            for (String term : matchedTerms) {
+                Posting posting = postings.get(term);
+                if (posting != null) {
+                    iterators.add(posting.ids.iterator());
+                }
+            }
+            return iterators.size() == 1 ? iterators.get(0) : new MergedIds(iterators);
+        }
+
+        private IndexedCar toIndexedCar(String make, String model) {
+            Set<String> carTerms = new HashSet<>(tokenize(make));
+            carTerms.addAll(tokenize(model));
+            Set<String> canonicalTerms = new HashSet<>(carTerms.size());
+            for (String term : carTerms) {
+                canonicalTerms.add(canonical(term));
+            }
+            return new IndexedCar(canonical(make), canonical(model), Set.copyOf(canonicalTerms));
+        }
+
+        // every canonical() of an indexed car is matched by one release(), so a string goes with its last car
+        private String canonical(String value) {
+            if (value == null) {
+                return null;
+            }
+            return strings.compute(value, (v, interned) -> {
+                if (interned == null) {
+                    interned = new Interned(v);
+                }
+                interned.references++;
+                return interned;
+            }).value;
+        }
+
+        private void release(IndexedCar car) {
+            release(car.make());
+            release(car.model());
+            for (String term : car.terms()) {
+                release(term);
+            }
+        }
+
+        private void release(String value) {
+            if (value != null) {
+                strings.computeIfPresent(value, (v, interned) -> --interned.references == 0 ? null : interned);
+            }
+        }
+
+        // postings are only created and dropped inside compute, so a term never loses an id to a concurrent prune
+        private void addPosting(String term, Long id) {
+            postings.compute(term, (t, posting) -> {
+                if (posting == null) {
+                    posting = new Posting();
+                    terms.add(t);
+                    for (String gram : grams(t)) {
+                        termsByGram.computeIfAbsent(gram, g -> ConcurrentHashMap.newKeySet()).add(t);
+                    }
+                }
+                if (posting.ids.add(id)) {
+                    posting.size.incrementAndGet();
+                }
+                return posting;
+            });
+        }
+
+        private void removePosting(String term, Long id) {
+            postings.computeIfPresent(term, (t, posting) -> {
+                if (posting.ids.remove(id) && posting.size.decrementAndGet() == 0) {
+                    terms.remove(t);
+                    for (String gram : grams(t)) {
+                        termsByGram.computeIfPresent(gram, (g, gramTerms) -> {
+                            gramTerms.remove(t);
+                            return gramTerms.isEmpty() ? null : gramTerms;
+                        });
+                    }
+                    return null;
+                }
+                return posting;
+            });
+        }
+    }
+
+    private record IndexedCar(String make, String model, Set<String> terms) {
+    }
+
+    // only read and written inside compute on its own key
+    private static class Interned {
+        private final String value;
+        private int references;
+
+        Interned(String value) {
+            this.value = value;
+        }
+    }
+
+    private static class Posting {
+        private final ConcurrentSkipListSet<Long> ids = new ConcurrentSkipListSet<>();
+        private final AtomicInteger size = new AtomicInteger();
+    }
+
+    private static class MergedIds implements Iterator<Long> {
+        private final PriorityQueue<PeekingIterator> queue = new PriorityQueue<>(Comparator.comparing(PeekingIterator::peek));
+        private Long last;
+
+        MergedIds(List<Iterator<Long>> iterators) {
+            for (Iterator<Long> iterator : iterators) {
+                if (iterator.hasNext()) {
+                    queue.add(new PeekingIterator(iterator));
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (!queue.isEmpty() && queue.peek().peek().equals(last)) {
+                advance(queue.poll());
+            }
+            return !queue.isEmpty();
+        }
+
+        @Override
+        public Long next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            PeekingIterator head = queue.poll();
+            last = head.peek();
+            advance(head);
+            return last;
+        }
+
+        private void advance(PeekingIterator iterator) {
+            iterator.next();
+            if (iterator.hasNext()) {
+                queue.add(iterator);
+            }
+        }
+    }
+
+    private static class PeekingIterator {
+        private final Iterator<Long> iterator;
+        private Long current;
+
+        PeekingIterator(Iterator<Long> iterator) {
+            this.iterator = iterator;
+            this.current = iterator.next();
+        }
+
+        Long peek() {
+            return current;
+        }
+
+        boolean hasNext() {
+            return current != null;
+        }
+
+        void next() {
+            current = iterator.hasNext() ? iterator.next() : null;
+        }
+    }
+}
@@ -1,17 +1,29 @@
 package com.example.springkata.v1.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarCollectionVersion;
+import com.example.springkata.v1.domain.CarStats;
+import com.example.springkata.v1.domain.CarView;
 
 public interface CarService {
     List<Car> findAll(String make);
 
+    List<CarView> findPage(String make, Long after, int limit);
+
+    CarCollectionVersion findVersion(String make);
+
+    CarStats findStats();
+
+    void streamAll(String make, Consumer<Car> consumer);
+
     Car findById(Long carId);
 
     Car save(Car car);
 
     void deleteById(Long id);
 
-    Car updateById(Long carId, Car car);
+    Car updateById(Long carId, Car car, Long expectedVersion);
 }
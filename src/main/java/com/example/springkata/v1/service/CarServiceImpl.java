@@ -1,60 +1,170 @@
 package com.example.springkata.v1.service;
 
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_ID;
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_MAKE;
+import static com.example.springkata.v1.util.CacheNames.CAR_STATS;
+import static com.example.springkata.v1.util.MetricNames.CAR_SERVICE;
+import static com.example.springkata.v1.util.MetricNames.CAR_SERVICE_RESULT_SIZE;
+
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
 import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarChangeType;
+import com.example.springkata.v1.domain.CarCollectionVersion;
+import com.example.springkata.v1.domain.CarStats;
+import com.example.springkata.v1.domain.CarView;
 import com.example.springkata.v1.exception.CarNotFoundException;
+import com.example.springkata.v1.exception.CarVersionMismatchException;
 import com.example.springkata.v1.repository.CarRepository;
 
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 
 @Service
+@Timed(value = CAR_SERVICE, histogram = true)
 @RequiredArgsConstructor
 public class CarServiceImpl implements CarService {
+    private static final Long FIRST_CURSOR = 0L;
     private final CarRepository carRepository;
+    private final EntityManager entityManager;
+    private final MeterRegistry meterRegistry;
+    private final RequestCoalescer requestCoalescer;
+    private final CarChangeService carChangeService;
+
     @Override
+    @Transactional(readOnly = true)
+    // the unfiltered listing is unbounded, so only per-make lists are cached
+    @Cacheable(value = CARS_BY_MAKE, key = "'make:' + T(com.example.springkata.v1.domain.Car).normalizeMake(#make)", condition = "#make != null")
     public List<Car> findAll(String make) {
-        List<Car> result;
-        if (make == null) {
-            result = carRepository.findAll();
-        } else {
-            result = carRepository.findByMakeIgnoreCase(make);
-        }
+        List<Car> result = make == null ? carRepository.findAll() : carRepository.findByMakeIgnoreCase(make);
+        recordResultSize("findAll", result.size());
+        return result;
+    }
+
+    // The reads below are coalesced outside a transaction: each load runs in the repository's own read-only
+    // transaction, so waiting followers hold no connection and never share a managed entity.
+    @Override
+    public List<CarView> findPage(String make, Long after, int limit) {
+        Assert.isTrue(limit > 0, "Page limit must be positive!");
+        Long cursor = after == null ? FIRST_CURSOR : after;
+        String makeKey = make == null ? null : Car.normalizeMake(make);
+        Pageable page = PageRequest.ofSize(limit);
+        List<CarView> result = requestCoalescer.execute("findPage", Arrays.asList(makeKey, cursor, limit), () -> makeKey == null
+                ? carRepository.findViewsAfter(cursor, page)
+                : carRepository.findViewsByMakeKeyAfter(makeKey, cursor, page));
+        recordResultSize("findPage", result.size());
         return result;
     }
 
     @Override
+    public CarCollectionVersion findVersion(String make) {
+        String makeKey = make == null ? null : Car.normalizeMake(make);
+        return requestCoalescer.execute("findVersion", makeKey, () -> makeKey == null
+                ? carRepository.findVersion()
+                : carRepository.findVersionByMakeKey(makeKey));
+    }
+
+    // Not evicted on writes; sync lets one caller reload the entry when it expires.
+    @Override
+    @Transactional(readOnly = true)
+    @Cacheable(value = CAR_STATS, sync = true)
+    public CarStats findStats() {
+        return CarStats.from(carRepository.findMakeStats(), carRepository.findModelStats());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(String make, Consumer<Car> consumer) {
+        Assert.notNull(consumer, "Car consumer cannot be null when streaming!");
+        try (Stream<Car> cars = make == null ? carRepository.streamAll() : carRepository.streamByMakeKeyOrderByIdAsc(Car.normalizeMake(make))) {
+            cars.forEach(car -> {
+                consumer.accept(car);
+                // keeps the persistence context from growing with the result set
+                entityManager.detach(car);
+            });
+        }
+    }
+
+    @Override
+    @Cacheable(value = CARS_BY_ID, key = "#carId", unless = "#result == null")
     public Car findById(Long carId) {
         Assert.notNull(carId, "Car id cannot be null when searching by id!");
-        return carRepository.findById(carId).orElse(null);
+        return requestCoalescer.execute("findById", carId, () -> carRepository.findById(carId).orElse(null),
+                car -> car.toBuilder().build());
     }
 
     @Override
+    @Transactional
+    @CacheEvict(value = CARS_BY_MAKE, allEntries = true)
     public Car save(Car car) {
         Assert.notNull(car, "Car cannot be null when persisting!");
         Car dto = Car.builder()
                 .make(car.getMake())
                 .model(car.getModel())
                 .build();
-        return carRepository.save(dto);
+        Car persistedCar = carRepository.save(dto);
+        carChangeService.recordAll(CarChangeType.CREATED, Collections.singletonList(persistedCar));
+        return persistedCar;
     }
 
     @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CARS_BY_ID, key = "#id"),
+            @CacheEvict(value = CARS_BY_MAKE, allEntries = true)
+    })
     public void deleteById(Long id) {
         Assert.notNull(id, "Car id cannot be null when deleting by id!");
         carRepository.deleteById(id);
+        // deletes are idempotent, so a delete of a missing car is recorded too
+        carChangeService.recordDeleted(List.of(id));
     }
 
     @Override
-    public Car updateById(Long carId, Car car) {
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(value = CARS_BY_ID, key = "#carId"),
+            @CacheEvict(value = CARS_BY_MAKE, allEntries = true)
+    })
+    public Car updateById(Long carId, Car car, Long expectedVersion) {
         Assert.notNull(carId, "Car id cannot be null when updating!");
         Assert.notNull(car, "Car cannot be null when updating!");
-        Car existingCar = carRepository.findById(carId).orElseThrow(() -> new CarNotFoundException("Could not find car with id: " + carId));
+        // locked, so a concurrent update waits instead of failing the version check at flush
+        Car existingCar = carRepository.findLockedById(carId)
+                .orElseThrow(() -> new CarNotFoundException("Could not find car with id: " + carId));
+        if (expectedVersion != null && !expectedVersion.equals(existingCar.getVersion())) {
+            throw new CarVersionMismatchException("Car with id: " + carId + " is no longer at version: " + expectedVersion);
+        }
         existingCar.setMake(car.getMake());
         existingCar.setModel(car.getModel());
-        return carRepository.save(existingCar);
+        // an entity update replaces just this car in the second-level cache, a bulk update would evict them all
+        entityManager.flush();
+        carChangeService.recordAll(CarChangeType.UPDATED, List.of(existingCar));
+        return existingCar;
+    }
+
+    private void recordResultSize(String method, int size) {
+        DistributionSummary.builder(CAR_SERVICE_RESULT_SIZE)
+                .baseUnit("rows")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(size);
     }
 }
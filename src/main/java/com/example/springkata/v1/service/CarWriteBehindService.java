@@ -0,0 +1,7 @@
+package com.example.springkata.v1.service;
+
+import com.example.springkata.v1.domain.Car;
+
+public interface CarWriteBehindService {
+    Car enqueue(Car car);
+}
@@ -0,0 +1,263 @@
+package com.example.springkata.v1.service;
+
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_MAKE;
+import static com.example.springkata.v1.util.CacheNames.CAR_QUERY_REGION;
+import static com.example.springkata.v1.util.MetricNames.CAR_WRITE_BEHIND_BATCH_SIZE;
+import static com.example.springkata.v1.util.MetricNames.CAR_WRITE_BEHIND_DEAD_LETTERED;
+import static com.example.springkata.v1.util.MetricNames.CAR_WRITE_BEHIND_FAILED;
+import static com.example.springkata.v1.util.MetricNames.CAR_WRITE_BEHIND_QUEUE_SIZE;
+import static com.example.springkata.v1.util.MetricNames.CAR_WRITE_BEHIND_REJECTED;
+import static com.example.springkata.v1.util.MetricNames.CAR_WRITE_BEHIND_RETRIED;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.SessionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+import com.example.springkata.config.WriteBehindProperties;
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarChangeType;
+import com.example.springkata.v1.domain.CarWriteFailure;
+import com.example.springkata.v1.exception.CarWriteQueueFullException;
+import com.example.springkata.v1.repository.CarJdbcRepository;
+import com.example.springkata.v1.repository.CarWriteFailureRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+// Phase below the web server's, so on shutdown requests stop before the queue is drained.
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "cars.write-behind", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(WriteBehindProperties.class)
+@RequiredArgsConstructor
+public class CarWriteBehindServiceImpl implements CarWriteBehindService, SmartLifecycle {
+    private static final long POLL_SLICE_MILLIS = 100;
+
+    private final CarJdbcRepository carJdbcRepository;
+    private final CarWriteFailureRepository carWriteFailureRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final CacheManager cacheManager;
+    private final CarChangeService carChangeService;
+    private final MeterRegistry meterRegistry;
+    private final WriteBehindProperties properties;
+
+    private volatile BlockingQueue<Car> queue;
+    private volatile boolean running;
+    private Thread flusher;
+
+    @Override
+    public Car enqueue(Car car) {
+        Assert.notNull(car, "Car cannot be null when queueing!");
+        if (!running) {
+            throw new CarWriteQueueFullException("Write-behind queue is not accepting cars");
+        }
+        Date now = new Date();
+        Car pendingCar = Car.builder()
+                .id(carJdbcRepository.nextId())
+                .make(car.getMake())
+                .makeKey(Car.normalizeMake(car.getMake()))
+                .model(car.getModel())
+                .version(0L)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        boolean accepted;
+        try {
+            accepted = queue.offer(pendingCar, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            accepted = false;
+        }
+        if (!accepted) {
+            Counter.builder(CAR_WRITE_BEHIND_REJECTED).register(meterRegistry).increment();
+            throw new CarWriteQueueFullException("Write-behind queue is full");
+        }
+        return pendingCar;
+    }
+
+    @Override
+    public void start() {
+        Assert.isTrue(properties.getQueueCapacity() > 0, "Write-behind queue capacity must be positive!");
+        Assert.isTrue(properties.getMaxBatchSize() > 0, "Write-behind batch size must be positive!");
+        Assert.isTrue(properties.getMaxAttempts() > 0, "Write-behind attempts must be positive!");
+        queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        Gauge.builder(CAR_WRITE_BEHIND_QUEUE_SIZE, queue, Collection::size).register(meterRegistry);
+        running = true;
+        flusher = Thread.ofPlatform()
+                .name("car-write-behind")
+                .daemon(true)
+                .start(this::flushLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            flusher.join(properties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // cars offered while the flusher was finishing its last batch
+        List<Car> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += properties.getMaxBatchSize()) {
+            flush(remaining.subList(from, Math.min(remaining.size(), from + properties.getMaxBatchSize())));
+        }
+        log.info("Write-behind queue stopped, {} cars flushed on shutdown", remaining.size());
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    private void flushLoop() {
+        List<Car> batch = new ArrayList<>(properties.getMaxBatchSize());
+        while (running) {
+            try {
+                Car first = queue.poll(POLL_SLICE_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fillBatch(batch);
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void fillBatch(List<Car> batch) throws InterruptedException {
+        int maxBatchSize = properties.getMaxBatchSize();
+        long deadline = System.nanoTime() + properties.getMaxDelay().toNanos();
+        while (batch.size() < maxBatchSize) {
+            if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || !running) {
+                return;
+            }
+            // polled in slices so a stop does not have to wait out a long maxDelay
+            Car next = queue.poll(Math.min(remaining, TimeUnit.MILLISECONDS.toNanos(POLL_SLICE_MILLIS)), TimeUnit.NANOSECONDS);
+            if (next != null) {
+                batch.add(next);
+            }
+        }
+    }
+
+    private void flush(List<Car> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Car> committed = insertWithRetries(batch) ? batch : insertOneByOne(batch);
+        DistributionSummary.builder(CAR_WRITE_BEHIND_BATCH_SIZE)
+                .baseUnit("rows")
+                .register(meterRegistry)
+                .record(committed.size());
+        invalidateCaches(committed);
+    }
+
+    private boolean insertWithRetries(List<Car> batch) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                insert(batch);
+                return true;
+            } catch (RuntimeException e) {
+                if (attempt >= properties.getMaxAttempts() || !backOff(attempt)) {
+                    log.warn("Could not write {} queued cars in {} attempts, writing them one by one", batch.size(), attempt, e);
+                    return false;
+                }
+                Counter.builder(CAR_WRITE_BEHIND_RETRIED).register(meterRegistry).increment();
+            }
+        }
+    }
+
+    private List<Car> insertOneByOne(List<Car> batch) {
+        List<Car> committed = new ArrayList<>(batch.size());
+        for (Car car : batch) {
+            try {
+                insert(List.of(car));
+                committed.add(car);
+            } catch (RuntimeException e) {
+                deadLetter(car, e);
+            }
+        }
+        return committed;
+    }
+
+    private void insert(List<Car> cars) {
+        transactionTemplate.executeWithoutResult(status -> {
+            carJdbcRepository.insertAll(cars);
+            carChangeService.recordAll(CarChangeType.CREATED, cars);
+        });
+    }
+
+    private void deadLetter(Car car, RuntimeException cause) {
+        try {
+            carWriteFailureRepository.save(CarWriteFailure.from(car, cause));
+            Counter.builder(CAR_WRITE_BEHIND_DEAD_LETTERED).register(meterRegistry).increment();
+            log.error("Queued car {} could not be written and was dead-lettered", car.getId(), cause);
+        } catch (RuntimeException e) {
+            Counter.builder(CAR_WRITE_BEHIND_FAILED).register(meterRegistry).increment();
+            e.addSuppressed(cause);
+            log.error("Queued car {} could not be written nor dead-lettered", car.getId(), e);
+        }
+    }
+
+    private boolean backOff(int attempt) {
+        try {
+            Thread.sleep(properties.getRetryBackoff().multipliedBy(attempt));
+            return true;
+        } catch (InterruptedException e) {
+            // keep the flag for the flush loop, the remaining attempts go through insertOneByOne
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // The inserts bypass Hibernate, so cached lookups would not see the new rows. The ids are new, so no entity is stale.
+    private void invalidateCaches(List<Car> committed) {
+        if (committed.isEmpty()) {
+            return;
+        }
+        Cache carsByMake = cacheManager.getCache(CARS_BY_MAKE);
+        if (carsByMake != null) {
+            committed.stream()
+                    .map(Car::getMakeKey)
+                    .distinct()
+                    .forEach(makeKey -> carsByMake.evict("make:" + makeKey));
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(CAR_QUERY_REGION);
+    }
+}
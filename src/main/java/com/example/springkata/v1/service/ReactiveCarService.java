@@ -0,0 +1,20 @@
+package com.example.springkata.v1.service;
+
+import com.example.springkata.v1.domain.Car;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveCarService {
+    Flux<Car> findAll(String make);
+
+    Flux<Car> findPage(String make, Long after, int limit);
+
+    Mono<Car> findById(Long carId);
+
+    Mono<Car> save(Car car);
+
+    Mono<Void> deleteById(Long id);
+
+    Mono<Car> updateById(Long carId, Car car, Long expectedVersion);
+}
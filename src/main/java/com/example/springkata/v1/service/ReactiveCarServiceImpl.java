@@ -0,0 +1,105 @@
+package com.example.springkata.v1.service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.exception.CarNotFoundException;
+import com.example.springkata.v1.exception.CarVersionMismatchException;
+import com.example.springkata.v1.repository.ReactiveCarRepository;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCarServiceImpl implements ReactiveCarService {
+    private static final Long FIRST_CURSOR = 0L;
+    private final ReactiveCarRepository carRepository;
+
+    @Override
+    public Flux<Car> findAll(String make) {
+        if (make == null) {
+            return carRepository.findAllByOrderByIdAsc();
+        }
+        return carRepository.findByMakeKeyOrderByIdAsc(Car.normalizeMake(make));
+    }
+
+    @Override
+    public Flux<Car> findPage(String make, Long after, int limit) {
+        Assert.isTrue(limit > 0, "Page limit must be positive!");
+        Long cursor = after == null ? FIRST_CURSOR : after;
+        Pageable page = PageRequest.ofSize(limit);
+        if (make == null) {
+            return carRepository.findByIdGreaterThanOrderByIdAsc(cursor, page);
+        }
+        return carRepository.findByMakeKeyAndIdGreaterThanOrderByIdAsc(Car.normalizeMake(make), cursor, page);
+    }
+
+    @Override
+    public Mono<Car> findById(Long carId) {
+        Assert.notNull(carId, "Car id cannot be null when searching by id!");
+        return carRepository.findById(carId);
+    }
+
+    @Override
+    public Mono<Car> save(Car car) {
+        Assert.notNull(car, "Car cannot be null when persisting!");
+        LocalDateTime createdAt = LocalDateTime.now();
+        String makeKey = Car.normalizeMake(car.getMake());
+        return carRepository.nextId()
+                .flatMap(id -> carRepository.insert(id, car.getMake(), makeKey, car.getModel(), createdAt)
+                        .thenReturn(Car.builder()
+                                .id(id)
+                                .make(car.getMake())
+                                .makeKey(makeKey)
+                                .model(car.getModel())
+                                .version(0L)
+                                .createdAt(Timestamp.valueOf(createdAt))
+                                .updatedAt(Timestamp.valueOf(createdAt))
+                                .build()));
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long id) {
+        Assert.notNull(id, "Car id cannot be null when deleting by id!");
+        return carRepository.deleteById(id);
+    }
+
+    @Override
+    public Mono<Car> updateById(Long carId, Car car, Long expectedVersion) {
+        Assert.notNull(carId, "Car id cannot be null when updating!");
+        Assert.notNull(car, "Car cannot be null when updating!");
+        LocalDateTime updatedAt = LocalDateTime.now();
+        String makeKey = Car.normalizeMake(car.getMake());
+        Mono<Long> updatedVersion;
+        if (expectedVersion == null) {
+            updatedVersion = carRepository.updateById(carId, car.getMake(), makeKey, car.getModel(), updatedAt);
+        } else {
+            updatedVersion = carRepository.updateByIdAndVersion(carId, expectedVersion, car.getMake(), makeKey, car.getModel(), updatedAt);
+        }
+        return updatedVersion
+                .map(version -> Car.builder()
+                        .id(carId)
+                        .make(car.getMake())
+                        .makeKey(makeKey)
+                        .model(car.getModel())
+                        .version(version)
+                        .updatedAt(Timestamp.valueOf(updatedAt))
+                        .build())
+                .switchIfEmpty(Mono.defer(() -> {
+                    Mono<Boolean> exists = expectedVersion == null ? Mono.just(false) : carRepository.existsById(carId);
+                    return exists.flatMap(found -> Mono.<Car>error(found
+                            ? new CarVersionMismatchException("Car with id: " + carId + " is no longer at version: " + expectedVersion)
+                            : new CarNotFoundException("Could not find car with id: " + carId)));
+                }));
+    }
+}
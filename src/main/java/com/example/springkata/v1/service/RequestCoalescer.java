@@ -0,0 +1,109 @@
+package com.example.springkata.v1.service;
+
+import static com.example.springkata.v1.util.MetricNames.CAR_SERVICE_COALESCED_CALLS;
+import static com.example.springkata.v1.util.MetricNames.CAR_SERVICE_COALESCED_FAN_IN;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import org.springframework.stereotype.Component;
+import org.springframework.util.Assert;
+
+import com.example.springkata.config.ReplicaRoutingDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+// Nothing is kept once a load completes, so this never serves stale data.
+@Component
+@RequiredArgsConstructor
+public class RequestCoalescer {
+    static final String LEADER = "leader";
+    static final String FOLLOWER = "follower";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<FlightKey, Flight> inFlight = new ConcurrentHashMap<>();
+
+    public <V> V execute(String method, Object key, Supplier<V> loader) {
+        return execute(method, key, loader, UnaryOperator.identity());
+    }
+
+    // followers get their own copy of a mutable result instead of the leader's instance
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String method, Object key, Supplier<V> loader, UnaryOperator<V> copy) {
+        Assert.notNull(method, "Method cannot be null when coalescing!");
+        Assert.notNull(loader, "Loader cannot be null when coalescing!");
+        Assert.notNull(copy, "Copy cannot be null when coalescing!");
+        if (ReplicaRoutingDataSource.isPinnedToPrimary()) {
+            // a flight started by another caller may be reading a replica that lags behind this caller's write
+            return loader.get();
+        }
+        FlightKey flightKey = new FlightKey(method, key);
+        Flight flight = new Flight();
+        Flight running = inFlight.putIfAbsent(flightKey, flight);
+        if (running != null) {
+            running.callers.incrementAndGet();
+            calls(method, FOLLOWER).increment();
+            V value = (V) await(running.result);
+            return value == null ? null : copy.apply(value);
+        }
+        calls(method, LEADER).increment();
+        try {
+            V value = loader.get();
+            inFlight.remove(flightKey, flight);
+            flight.result.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            inFlight.remove(flightKey, flight);
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            fanIn(method).record(flight.callers.get());
+        }
+    }
+
+    private Object await(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private Counter calls(String method, String role) {
+        return Counter.builder(CAR_SERVICE_COALESCED_CALLS)
+                .description("Lookups that started a load (leader) or joined one already in flight (follower)")
+                .tag("method", method)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary fanIn(String method) {
+        return DistributionSummary.builder(CAR_SERVICE_COALESCED_FAN_IN)
+                .description("Callers served by a single load")
+                .baseUnit("calls")
+                .tag("method", method)
+                .register(meterRegistry);
+    }
+
+    private record FlightKey(String method, Object key) {
+    }
+
+    private static class Flight {
+        private final CompletableFuture<Object> result = new CompletableFuture<>();
+        private final AtomicInteger callers = new AtomicInteger(1);
+    }
+}
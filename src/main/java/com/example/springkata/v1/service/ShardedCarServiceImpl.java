@@ -0,0 +1,151 @@
+package com.example.springkata.v1.service;
+
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_ID;
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_MAKE;
+import static com.example.springkata.v1.util.CacheNames.CAR_STATS;
+import static com.example.springkata.v1.util.MetricNames.CAR_SERVICE;
+import static com.example.springkata.v1.util.MetricNames.CAR_SERVICE_RESULT_SIZE;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.util.Assert;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarCollectionVersion;
+import com.example.springkata.v1.domain.CarStats;
+import com.example.springkata.v1.domain.CarView;
+import com.example.springkata.v1.exception.CarNotFoundException;
+import com.example.springkata.v1.exception.CarVersionMismatchException;
+import com.example.springkata.v1.repository.ShardedCarRepository;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+
+// Writes are not recorded in the change log, which lives in another database.
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "cars.sharding", name = "enabled", havingValue = "true")
+@Timed(value = CAR_SERVICE, histogram = true)
+@RequiredArgsConstructor
+public class ShardedCarServiceImpl implements CarService {
+    private static final Long FIRST_CURSOR = 0L;
+    private final ShardedCarRepository shardedCarRepository;
+    private final MeterRegistry meterRegistry;
+    private final RequestCoalescer requestCoalescer;
+    private final CarSearchService carSearchService;
+
+    @Override
+    // the unfiltered listing is unbounded, so only per-make lists are cached
+    @Cacheable(value = CARS_BY_MAKE, key = "'make:' + T(com.example.springkata.v1.domain.Car).normalizeMake(#make)", condition = "#make != null")
+    public List<Car> findAll(String make) {
+        List<Car> result = shardedCarRepository.findAll(make == null ? null : Car.normalizeMake(make));
+        recordResultSize("findAll", result.size());
+        return result;
+    }
+
+    @Override
+    public List<CarView> findPage(String make, Long after, int limit) {
+        Assert.isTrue(limit > 0, "Page limit must be positive!");
+        Long cursor = after == null ? FIRST_CURSOR : after;
+        String makeKey = make == null ? null : Car.normalizeMake(make);
+        List<CarView> result = requestCoalescer.execute("findPage", Arrays.asList(makeKey, cursor, limit),
+                () -> shardedCarRepository.findViewsAfter(makeKey, cursor, limit));
+        recordResultSize("findPage", result.size());
+        return result;
+    }
+
+    @Override
+    public CarCollectionVersion findVersion(String make) {
+        String makeKey = make == null ? null : Car.normalizeMake(make);
+        return requestCoalescer.execute("findVersion", makeKey, () -> shardedCarRepository.findVersion(makeKey));
+    }
+
+    @Override
+    @Cacheable(value = CAR_STATS, sync = true)
+    public CarStats findStats() {
+        return CarStats.from(shardedCarRepository.findMakeStats(), shardedCarRepository.findModelStats());
+    }
+
+    @Override
+    public void streamAll(String make, Consumer<Car> consumer) {
+        Assert.notNull(consumer, "Car consumer cannot be null when streaming!");
+        shardedCarRepository.forEach(make == null ? null : Car.normalizeMake(make), consumer);
+    }
+
+    @Override
+    @Cacheable(value = CARS_BY_ID, key = "#carId", unless = "#result == null")
+    public Car findById(Long carId) {
+        Assert.notNull(carId, "Car id cannot be null when searching by id!");
+        return requestCoalescer.execute("findById", carId, () -> shardedCarRepository.findById(carId).orElse(null),
+                car -> car.toBuilder().build());
+    }
+
+    @Override
+    @CacheEvict(value = CARS_BY_MAKE, allEntries = true)
+    public Car save(Car car) {
+        Assert.notNull(car, "Car cannot be null when persisting!");
+        Car persistedCar = shardedCarRepository.insert(car);
+        carSearchService.index(persistedCar);
+        return persistedCar;
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = CARS_BY_ID, key = "#id"),
+            @CacheEvict(value = CARS_BY_MAKE, allEntries = true)
+    })
+    public void deleteById(Long id) {
+        Assert.notNull(id, "Car id cannot be null when deleting by id!");
+        shardedCarRepository.deleteById(id);
+        carSearchService.remove(id);
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(value = CARS_BY_ID, key = "#carId"),
+            @CacheEvict(value = CARS_BY_MAKE, allEntries = true)
+    })
+    public Car updateById(Long carId, Car car, Long expectedVersion) {
+        Assert.notNull(carId, "Car id cannot be null when updating!");
+        Assert.notNull(car, "Car cannot be null when updating!");
+        Date updatedAt = new Date();
+        Optional<Long> version = shardedCarRepository.updateById(carId, expectedVersion, car.getMake(), car.getModel(), updatedAt);
+        if (version.isEmpty()) {
+            if (expectedVersion != null && shardedCarRepository.existsById(carId)) {
+                throw new CarVersionMismatchException("Car with id: " + carId + " is no longer at version: " + expectedVersion);
+            }
+            throw new CarNotFoundException("Could not find car with id: " + carId);
+        }
+        Car updatedCar = Car.builder()
+                .id(carId)
+                .make(car.getMake())
+                .makeKey(Car.normalizeMake(car.getMake()))
+                .model(car.getModel())
+                .version(version.get())
+                .updatedAt(updatedAt)
+                .build();
+        carSearchService.index(updatedCar);
+        return updatedCar;
+    }
+
+    private void recordResultSize(String method, int size) {
+        DistributionSummary.builder(CAR_SERVICE_RESULT_SIZE)
+                .baseUnit("rows")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(size);
+    }
+}
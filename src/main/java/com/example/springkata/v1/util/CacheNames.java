@@ -0,0 +1,9 @@
+package com.example.springkata.v1.util;
+
+public class CacheNames {
+    public static final String CARS_BY_ID = "carsById";
+    public static final String CARS_BY_MAKE = "carsByMake";
+    public static final String CAR_STATS = "carStats";
+    public static final String CAR_ENTITY_REGION = "carEntities";
+    public static final String CAR_QUERY_REGION = "carQueries";
+}
@@ -7,4 +7,13 @@ public class ControllerPaths {
     public static final String GET_CAR_WITHOUT_ID_V1 = "/v1/cars/";
     public static final String DELETE_CAR_BY_ID_V1 = "/v1/cars/{carId}";
     public static final String PUT_CAR_BY_ID_V1 = "/v1/cars/{carId}";
+    public static final String POST_CARS_BATCH_V1 = "/v1/cars:batch";
+    public static final String PUT_CARS_BATCH_V1 = "/v1/cars:batch";
+    public static final String DELETE_CARS_BATCH_V1 = "/v1/cars:batch";
+    public static final String POST_CARS_IMPORT_V1 = "/v1/cars/import";
+    public static final String GET_CARS_EXPORT_V1 = "/v1/cars/export";
+    public static final String GET_CARS_SEARCH_V1 = "/v1/cars/search";
+    public static final String GET_CARS_STATS_V1 = "/v1/cars/stats";
+    public static final String GET_CAR_CHANGES_V1 = "/v1/cars/changes";
+    public static final String[] CARS_URL_PATTERNS = {"/v1/cars", "/v1/cars/*", "/v1/cars:batch"};
 }
@@ -0,0 +1,20 @@
+package com.example.springkata.v1.util;
+
+public class MetricNames {
+    public static final String CAR_SERVICE = "car.service";
+    public static final String CAR_SERVICE_RESULT_SIZE = "car.service.result.size";
+    public static final String CAR_SERVICE_COALESCED_CALLS = "car.service.coalesced.calls";
+    public static final String CAR_SERVICE_COALESCED_FAN_IN = "car.service.coalesced.fan.in";
+    public static final String CAR_WRITE_BEHIND_QUEUE_SIZE = "car.write.behind.queue.size";
+    public static final String CAR_WRITE_BEHIND_BATCH_SIZE = "car.write.behind.batch.size";
+    public static final String CAR_WRITE_BEHIND_REJECTED = "car.write.behind.rejected";
+    public static final String CAR_WRITE_BEHIND_RETRIED = "car.write.behind.retried";
+    public static final String CAR_WRITE_BEHIND_DEAD_LETTERED = "car.write.behind.dead.lettered";
+    public static final String CAR_WRITE_BEHIND_FAILED = "car.write.behind.failed";
+    public static final String CAR_CHANGES_SUBSCRIBERS = "car.changes.subscribers";
+    public static final String CAR_DATASOURCE_ROUTED = "car.datasource.routed";
+    public static final String CAR_CONCURRENCY_LIMIT = "car.concurrency.limit";
+    public static final String CAR_CONCURRENCY_IN_FLIGHT = "car.concurrency.in.flight";
+    public static final String CAR_CONCURRENCY_REJECTED = "car.concurrency.rejected";
+    public static final String APPLICATION_FIRST_REQUEST_TIME = "application.first.request.time";
+}
@@ -0,0 +1,12 @@
+CREATE TABLE IF NOT EXISTS car (
+    id BIGINT PRIMARY KEY,
+    make VARCHAR(255),
+    make_key VARCHAR(255) NOT NULL,
+    model VARCHAR(255),
+    version BIGINT,
+    created_at TIMESTAMP(6),
+    updated_at TIMESTAMP(6)
+);
+CREATE INDEX IF NOT EXISTS idx_car_make_key ON car (make_key, id);
+CREATE INDEX IF NOT EXISTS idx_car_updated_at ON car (updated_at);
+CREATE INDEX IF NOT EXISTS idx_car_make_key_updated_at ON car (make_key, updated_at);
@@ -0,0 +1,83 @@
+package com.example.springkata.bootstrap;
+
+import static com.example.springkata.v1.util.CarProvider.createDefaultCar;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.springkata.v1.repository.CarJdbcRepository;
+import com.example.springkata.v1.repository.CarRepository;
+
+@DataJpaTest(properties = "cars.seed.enabled=false")
+@Import({CarInitializer.class, CarDataGenerator.class, CarJdbcRepository.class})
+class CarDataGeneratorTestIT {
+    @Autowired
+    CarDataGenerator carDataGenerator;
+
+    @Autowired
+    CarRepository repository;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void whenSeedingIsDisabled_databaseIsEmpty() {
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void whenRowsAreGenerated_allOfThemAreInsertedWithConfiguredMakes() {
+        SeedProperties properties = createProperties(1234, 7);
+
+        long generated = carDataGenerator.generate(properties);
+
+        assertEquals(1234, generated);
+        assertEquals(1234, repository.count());
+        List<String> makes = jdbcTemplate.queryForList("SELECT DISTINCT make FROM car", String.class);
+        assertTrue(Set.of("Saab", "Volvo").containsAll(makes));
+        assertEquals(1234, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT id) FROM car WHERE id > 0", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM car WHERE make_key <> LOWER(make)", Long.class));
+    }
+
+    @Test
+    void whenSameSeedIsUsed_sameCarsAreGenerated() {
+        carDataGenerator.generate(createProperties(300, 11));
+        Long lastId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM car", Long.class);
+        carDataGenerator.generate(createProperties(300, 11));
+
+        List<String> first = jdbcTemplate.queryForList(
+                "SELECT make || '/' || model FROM car WHERE id <= ? ORDER BY id", String.class, lastId);
+        List<String> second = jdbcTemplate.queryForList(
+                "SELECT make || '/' || model FROM car WHERE id > ? ORDER BY id", String.class, lastId);
+        assertEquals(first, second);
+    }
+
+    @Test
+    void whenGeneratedCarsExist_repositoryCanStillInsertCars() {
+        carDataGenerator.generate(createProperties(120, 3));
+
+        repository.saveAndFlush(createDefaultCar());
+
+        assertEquals(121, repository.count());
+        assertEquals(121, jdbcTemplate.queryForObject("SELECT COUNT(DISTINCT id) FROM car", Long.class));
+    }
+
+    private SeedProperties createProperties(long rows, long randomSeed) {
+        SeedProperties properties = new SeedProperties();
+        properties.setRows(rows);
+        properties.setRandomSeed(randomSeed);
+        properties.setBatchSize(100);
+        properties.setMakes(List.of(
+                new SeedProperties.MakeShare("Saab", 1, List.of("9-3", "9-5")),
+                new SeedProperties.MakeShare("Volvo", 3, List.of("V70", "XC90"))));
+        return properties;
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.springkata.config;
+
+import static com.example.springkata.v1.util.ControllerPaths.GET_CARS_EXPORT_V1;
+import static com.example.springkata.v1.util.ControllerPaths.GET_CARS_V1_PATH;
+import static com.example.springkata.v1.util.ControllerPaths.GET_CAR_CHANGES_V1;
+import static com.example.springkata.v1.util.ControllerPaths.POST_CAR_V1;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class AdmissionControlFilterTest {
+    static final int STREAMS = 5;
+    VegasConcurrencyLimiter readLimiter;
+    VegasConcurrencyLimiter writeLimiter;
+    VegasConcurrencyLimiter streamLimiter;
+    Counter readRejected;
+    Counter writeRejected;
+    Counter streamRejected;
+    AdmissionControlFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        readLimiter = new VegasConcurrencyLimiter(1, 1, 10);
+        writeLimiter = new VegasConcurrencyLimiter(1, 1, 10);
+        streamLimiter = new VegasConcurrencyLimiter(STREAMS, STREAMS, STREAMS);
+        readRejected = meterRegistry.counter("read");
+        writeRejected = meterRegistry.counter("write");
+        streamRejected = meterRegistry.counter("stream");
+        filter = new AdmissionControlFilter(readLimiter, writeLimiter, streamLimiter, readRejected, writeRejected,
+                streamRejected, Duration.ofSeconds(2));
+    }
+
+    @Test
+    void whenBelowLimit_requestIsPassedOnAndSlotIsFreed() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", GET_CARS_V1_PATH), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(0, readLimiter.getInFlight());
+    }
+
+    @Test
+    void whenReadLimitIsReached_readIsShedWithRetryAfter() throws Exception {
+        readLimiter.tryAcquire().orElseThrow();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", GET_CARS_V1_PATH), response, chain);
+
+        assertNull(chain.getRequest());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+        assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertEquals(1, readRejected.count());
+        assertEquals(0, writeRejected.count());
+    }
+
+    @Test
+    void whenReadLimitIsReached_writesAreStillAdmitted() throws Exception {
+        readLimiter.tryAcquire().orElseThrow();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("POST", POST_CAR_V1), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+    }
+
+    @Test
+    void whenHandlerThrows_slotIsFreed() {
+        assertThrows(IllegalStateException.class, () -> filter.doFilter(new MockHttpServletRequest("PUT", POST_CAR_V1),
+                new MockHttpServletResponse(), (request, response) -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        assertEquals(0, writeLimiter.getInFlight());
+    }
+
+    @Test
+    void whenHandlerStartsAStream_slotIsHeldUntilTheStreamEnds() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", GET_CARS_V1_PATH);
+        request.setAsyncSupported(true);
+
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+
+        assertEquals(1, readLimiter.getInFlight());
+        request.getAsyncContext().complete();
+        assertEquals(0, readLimiter.getInFlight());
+    }
+
+    @Test
+    void whenSubscribersKeepChangeStreamsOpen_carReadsAreStillAdmitted() throws Exception {
+        List<MockHttpServletRequest> subscriptions = new ArrayList<>();
+        for (int i = 0; i < STREAMS; i++) {
+            MockHttpServletRequest subscription = new MockHttpServletRequest("GET", GET_CAR_CHANGES_V1);
+            subscription.setParameter("stream", "true");
+            subscription.setAsyncSupported(true);
+            filter.doFilter(subscription, new MockHttpServletResponse(), (req, res) -> req.startAsync());
+            subscriptions.add(subscription);
+        }
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/v1/cars/42"), response, chain);
+
+        assertNotNull(chain.getRequest());
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(STREAMS, streamLimiter.getInFlight());
+        assertEquals(0, readLimiter.getInFlight());
+        subscriptions.forEach(subscription -> subscription.getAsyncContext().complete());
+        assertEquals(0, streamLimiter.getInFlight());
+    }
+
+    @Test
+    void whenStreamLimitIsReached_streamsAreShedButReadsAreNot() throws Exception {
+        for (int i = 0; i < STREAMS; i++) {
+            streamLimiter.tryAcquire().orElseThrow();
+        }
+        MockHttpServletResponse exportResponse = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", GET_CARS_EXPORT_V1), exportResponse, new MockFilterChain());
+        MockHttpServletResponse readResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", GET_CARS_V1_PATH), readResponse, new MockFilterChain());
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), exportResponse.getStatus());
+        assertEquals(1, streamRejected.count());
+        assertEquals(HttpStatus.OK.value(), readResponse.getStatus());
+        assertEquals(0, readRejected.count());
+    }
+
+    @Test
+    void whenPathsDifferOnlyInId_theyShareARoute() {
+        assertEquals("GET /v1/cars/{id}", AdmissionControlFilter.route(new MockHttpServletRequest("GET", "/v1/cars/42")));
+        assertEquals("PUT /v1/cars/{id}", AdmissionControlFilter.route(new MockHttpServletRequest("PUT", "/v1/cars/7")));
+        assertEquals("GET /v1/cars", AdmissionControlFilter.route(new MockHttpServletRequest("GET", "/v1/cars")));
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.springkata.config;
+
+import static com.example.springkata.v1.util.ControllerPaths.GET_CARS_V1_PATH;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.annotation.DirtiesContext;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "cars.admission.read.initial-limit=2",
+        "cars.admission.read.min-limit=1",
+        "cars.admission.read.max-limit=4"
+})
+@DirtiesContext
+class AdmissionControlTestIT {
+    static final int REQUESTS = 2_000;
+    static final int CONCURRENCY = 100;
+    static final long MAX_ADMITTED_P99_MILLIS = 1_000;
+
+    @LocalServerPort
+    int port;
+
+    @Test
+    void whenReadsExceedTheLimit_excessIsShedAndAdmittedLatencyStaysBounded() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + GET_CARS_V1_PATH)).GET().build();
+        ConcurrentLinkedQueue<Long> admittedLatencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger shed = new AtomicInteger();
+        AtomicInteger shedWithoutRetryAfter = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<?>> futures = new ArrayList<>(REQUESTS);
+        for (int i = 0; i < REQUESTS; i++) {
+            futures.add(executor.submit(() -> {
+                long start = System.nanoTime();
+                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() == HttpStatus.OK.value()) {
+                    admittedLatencies.add(System.nanoTime() - start);
+                } else if (response.statusCode() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+                    shed.incrementAndGet();
+                    if (response.headers().firstValue(HttpHeaders.RETRY_AFTER).isEmpty()) {
+                        shedWithoutRetryAfter.incrementAndGet();
+                    }
+                } else {
+                    unexpected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        long[] latencies = admittedLatencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        assertTrue(latencies.length > 0, "no request was admitted");
+        long p99Millis = TimeUnit.NANOSECONDS.toMillis(latencies[(int) Math.ceil(latencies.length * 0.99) - 1]);
+        assertTrue(shed.get() > 0, "no request was shed");
+        assertEquals(0, shedWithoutRetryAfter.get());
+        assertEquals(0, unexpected.get());
+        assertTrue(p99Millis < MAX_ADMITTED_P99_MILLIS, "admitted p99 " + p99Millis + " ms");
+    }
+}
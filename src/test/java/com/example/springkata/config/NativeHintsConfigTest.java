@@ -0,0 +1,38 @@
+package com.example.springkata.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import com.example.springkata.v1.domain.CarCollectionVersion;
+import com.example.springkata.v1.domain.CarView;
+
+class NativeHintsConfigTest {
+    @Test
+    void whenHintsAreRegistered_projectionConstructorsCanBeInvoked() {
+        RuntimeHints hints = new RuntimeHints();
+
+        new NativeHintsConfig.CarRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(CarView.class).withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(CarCollectionVersion.class).withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+    }
+
+    @Test
+    void whenHintsAreRegistered_secondLevelCacheAndShardSchemaAreIncluded() {
+        RuntimeHints hints = new RuntimeHints();
+
+        new NativeHintsConfig.CarRuntimeHints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection()
+                .onType(TypeReference.of(NativeHintsConfig.JCACHE_PROVIDER)).withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource(NativeHintsConfig.JCACHE_CONFIG).test(hints));
+        assertTrue(RuntimeHintsPredicates.resource().forResource(ShardingConfig.SHARD_SCHEMA).test(hints));
+    }
+}
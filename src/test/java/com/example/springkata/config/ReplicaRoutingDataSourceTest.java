@@ -0,0 +1,98 @@
+package com.example.springkata.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ReplicaRoutingDataSourceTest {
+    ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReplicaRoutingDataSource(mock(DataSource.class), List.of(), Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+        dataSource.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void whenConnectionIsTakenOutsideATransaction_lagWindowStaysClosed() throws SQLException {
+        dataSource.getConnection();
+
+        assertFalse(dataSource.isWithinLagWindow());
+    }
+
+    @Test
+    void whenReadOnlyTransactionCommits_lagWindowStaysClosed() throws SQLException {
+        beginTransaction(true);
+        dataSource.getConnection();
+
+        completeTransaction(true);
+
+        assertFalse(dataSource.isWithinLagWindow());
+    }
+
+    @Test
+    void whenWriteTransactionIsStillOpen_lagWindowStaysClosed() throws SQLException {
+        beginTransaction(false);
+        dataSource.getConnection();
+
+        assertFalse(dataSource.isWithinLagWindow());
+    }
+
+    @Test
+    void whenWriteTransactionRollsBack_lagWindowStaysClosed() throws SQLException {
+        beginTransaction(false);
+        dataSource.getConnection();
+
+        completeTransaction(false);
+
+        assertFalse(dataSource.isWithinLagWindow());
+    }
+
+    @Test
+    void whenWriteTransactionCommits_lagWindowOpens() throws SQLException {
+        beginTransaction(false);
+        dataSource.getConnection();
+
+        completeTransaction(true);
+
+        assertTrue(dataSource.isWithinLagWindow());
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private void completeTransaction(boolean committed) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (committed) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        int status = committed ? TransactionSynchronization.STATUS_COMMITTED : TransactionSynchronization.STATUS_ROLLED_BACK;
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
+}
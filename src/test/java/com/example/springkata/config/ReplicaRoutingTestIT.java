@@ -0,0 +1,160 @@
+package com.example.springkata.config;
+
+import static com.example.springkata.config.ReadYourWritesFilter.LAST_WRITE_COOKIE;
+import static com.example.springkata.config.ReplicaRoutingDataSource.PRIMARY;
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_MAKE;
+import static com.example.springkata.v1.util.CarProvider.createCustomCar;
+import static com.example.springkata.v1.util.ControllerPaths.GET_CARS_V1_PATH;
+import static com.example.springkata.v1.util.ControllerPaths.POST_CAR_V1;
+import static com.example.springkata.v1.util.MetricNames.CAR_DATASOURCE_ROUTED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.example.springkata.v1.service.CarService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.Cookie;
+
+// H2 cannot replicate, so the replica is a second pool on the same database.
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1",
+        "cars.replica.enabled=true",
+        "cars.replica.urls=jdbc:h2:mem:routing;DB_CLOSE_DELAY=-1"
+})
+@DirtiesContext
+class ReplicaRoutingTestIT {
+    static final String REPLICA = ReplicaRoutingDataSource.REPLICA_PREFIX + 0;
+
+    MockMvc mockMvc;
+
+    @Autowired
+    WebApplicationContext wac;
+
+    @Autowired
+    FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter;
+
+    @Autowired
+    CarService carService;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac)
+                .addFilters(readYourWritesFilter.getFilter())
+                .build();
+    }
+
+    @Test
+    void whenReadOnlyServiceMethodRuns_queryIsRoutedToReplica() {
+        double primary = routed(PRIMARY);
+        double replica = routed(REPLICA);
+
+        carService.findPage(null, null, 10);
+
+        assertEquals(primary, routed(PRIMARY));
+        assertTrue(routed(REPLICA) > replica);
+    }
+
+    @Test
+    void whenCarIsSaved_queryIsRoutedToPrimary() {
+        double primary = routed(PRIMARY);
+        double replica = routed(REPLICA);
+
+        carService.save(createCustomCar("Seat", "Leon"));
+
+        assertTrue(routed(PRIMARY) > primary);
+        assertEquals(replica, routed(REPLICA));
+    }
+
+    @Test
+    void whenClientReadsAfterItsOwnWrite_readsAreRoutedToPrimary() throws Exception {
+        Cookie lastWrite = mockMvc.perform(post(POST_CAR_V1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomCar("Seat", "Ibiza"))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getCookie(LAST_WRITE_COOKIE);
+        assertNotNull(lastWrite);
+        double primary = routed(PRIMARY);
+        double replica = routed(REPLICA);
+
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .queryParam("make", "Seat")
+                        .cookie(lastWrite)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertTrue(routed(PRIMARY) > primary);
+        assertEquals(replica, routed(REPLICA));
+    }
+
+    @Test
+    void whenOtherClientReads_readsAreRoutedToReplica() throws Exception {
+        double primary = routed(PRIMARY);
+        double replica = routed(REPLICA);
+
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        assertEquals(primary, routed(PRIMARY));
+        assertTrue(routed(REPLICA) > replica);
+    }
+
+    @Test
+    void whenReadIsPinnedToPrimary_cachesAreBypassed() {
+        carService.save(createCustomCar("Seat", "Arona"));
+        double primary = routed(PRIMARY);
+
+        try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.pinToPrimary()) {
+            carService.findAll("Seat");
+            carService.findAll("Seat");
+        }
+
+        assertEquals(primary + 2, routed(PRIMARY));
+        assertNull(cacheManager.getCache(CARS_BY_MAKE).get("make:seat"));
+    }
+
+    @Test
+    void whenReplicaIsReadInsideLagWindow_resultIsNotCached() {
+        carService.save(createCustomCar("Cupra", "Born"));
+        double replica = routed(REPLICA);
+
+        carService.findAll("Cupra");
+        carService.findAll("Cupra");
+
+        assertEquals(replica + 2, routed(REPLICA));
+        assertNull(cacheManager.getCache(CARS_BY_MAKE).get("make:cupra"));
+    }
+
+    private double routed(String target) {
+        return meterRegistry.get(CAR_DATASOURCE_ROUTED).tag("target", target).counter().count();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.springkata.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class VegasConcurrencyLimiterTest {
+    final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void whenLimitIsReached_requestsAreRejected() {
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(2, 1, 10, clock::get);
+        VegasConcurrencyLimiter.Permit first = limiter.tryAcquire().orElseThrow();
+        assertTrue(limiter.tryAcquire().isPresent());
+
+        assertTrue(limiter.tryAcquire().isEmpty());
+
+        first.onIgnore();
+        assertTrue(limiter.tryAcquire().isPresent());
+    }
+
+    @Test
+    void whenPermitIsReleasedTwice_itIsOnlyCountedOnce() {
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(2, 1, 10, clock::get);
+        VegasConcurrencyLimiter.Permit permit = limiter.tryAcquire().orElseThrow();
+        limiter.tryAcquire().orElseThrow();
+
+        permit.onSuccess();
+        permit.onDropped();
+
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void whenLatencyStaysAtBaseline_limitGrows() {
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(10, 1, 100, clock::get);
+
+        for (int i = 0; i < 5; i++) {
+            runAtFullLimit(limiter, 10);
+        }
+
+        assertTrue(limiter.getLimit() > 10, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void whenLatencyRises_limitShrinks() {
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(50, 5, 100, clock::get);
+        runAtFullLimit(limiter, 10);
+        int limitAtBaseline = limiter.getLimit();
+
+        runAtFullLimit(limiter, 200);
+
+        assertTrue(limiter.getLimit() < limitAtBaseline, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void whenRoutesDifferInLatency_limitDoesNotCollapse() {
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(20, 1, 100, clock::get);
+
+        for (int i = 0; i < 20; i++) {
+            runAtFullLimit(limiter, "GET /v1/cars/{id}", 1);
+            runAtFullLimit(limiter, "GET /v1/cars", 50);
+        }
+
+        assertTrue(limiter.getLimit() >= 20, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void whenLatencyStaysHigher_baselineFollowsAndLimitRecovers() {
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(10, 1, 100, clock::get);
+        runAtFullLimit(limiter, 10);
+        runAtFullLimit(limiter, 100);
+        int limitAfterSlowdown = limiter.getLimit();
+
+        for (int i = 0; i < 2_000; i++) {
+            runAtFullLimit(limiter, 100);
+        }
+
+        assertTrue(limiter.getLimit() > limitAfterSlowdown, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void whenRequestsAreDropped_limitShrinks() {
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(20, 1, 100, clock::get);
+        runSequentially(limiter, 10);
+
+        List<VegasConcurrencyLimiter.Permit> permits = acquireAll(limiter);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(10));
+        permits.forEach(VegasConcurrencyLimiter.Permit::onDropped);
+
+        assertTrue(limiter.getLimit() < 20, "limit " + limiter.getLimit());
+    }
+
+    @Test
+    void whenFewRequestsAreInFlight_limitDoesNotMove() {
+        VegasConcurrencyLimiter limiter = new VegasConcurrencyLimiter(20, 1, 100, clock::get);
+
+        runSequentially(limiter, 10);
+        runSequentially(limiter, 500);
+        runSequentially(limiter, 1000);
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    @Test
+    void whenLimitsAreInconsistent_exceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new VegasConcurrencyLimiter(5, 10, 20));
+        assertThrows(IllegalArgumentException.class, () -> new VegasConcurrencyLimiter(30, 10, 20));
+        assertThrows(IllegalArgumentException.class, () -> new VegasConcurrencyLimiter(5, 0, 20));
+    }
+
+    private void runAtFullLimit(VegasConcurrencyLimiter limiter, long rttMillis) {
+        runAtFullLimit(limiter, VegasConcurrencyLimiter.DEFAULT_ROUTE, rttMillis);
+    }
+
+    private void runAtFullLimit(VegasConcurrencyLimiter limiter, String route, long rttMillis) {
+        List<VegasConcurrencyLimiter.Permit> permits = acquireAll(limiter, route);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+        permits.forEach(VegasConcurrencyLimiter.Permit::onSuccess);
+    }
+
+    private void runSequentially(VegasConcurrencyLimiter limiter, long rttMillis) {
+        VegasConcurrencyLimiter.Permit permit = limiter.tryAcquire().orElseThrow();
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(rttMillis));
+        permit.onSuccess();
+    }
+
+    private List<VegasConcurrencyLimiter.Permit> acquireAll(VegasConcurrencyLimiter limiter) {
+        return acquireAll(limiter, VegasConcurrencyLimiter.DEFAULT_ROUTE);
+    }
+
+    private List<VegasConcurrencyLimiter.Permit> acquireAll(VegasConcurrencyLimiter limiter, String route) {
+        List<VegasConcurrencyLimiter.Permit> permits = new ArrayList<>();
+        limiter.tryAcquire(route).ifPresent(permits::add);
+        while (permits.size() < limiter.getLimit()) {
+            permits.add(limiter.tryAcquire(route).orElseThrow());
+        }
+        return permits;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.springkata.load;
+
+import static com.example.springkata.v1.util.ControllerPaths.GET_CARS_V1_PATH;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+// Admission control is off since shed requests would count as failures; AdmissionControlTestIT covers overload.
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "cars.admission.enabled=false")
+abstract class AbstractCarLoadTest {
+    static final int REQUESTS = 20_000;
+    static final int CONCURRENCY = 400;
+
+    final Logger log = LoggerFactory.getLogger(getClass());
+
+    @LocalServerPort
+    int port;
+
+    abstract String mode();
+
+    @Test
+    void findCarsUnderConcurrentLoad() throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + GET_CARS_V1_PATH)).GET().build();
+        long[] latencies = new long[REQUESTS];
+        AtomicInteger failures = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<?>> futures = new ArrayList<>(REQUESTS);
+        long start = System.nanoTime();
+        for (int i = 0; i < REQUESTS; i++) {
+            int index = i;
+            futures.add(executor.submit(() -> {
+                long requestStart = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        failures.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    failures.incrementAndGet();
+                }
+                latencies[index] = System.nanoTime() - requestStart;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Arrays.sort(latencies);
+        long p99 = latencies[(int) Math.ceil(REQUESTS * 0.99) - 1];
+        double throughput = REQUESTS / (elapsed / 1_000_000_000.0);
+        log.info("[{}] {} requests, throughput: {} req/s, p99: {} ms, failures: {}", mode(), REQUESTS,
+                String.format("%.0f", throughput), String.format("%.2f", p99 / 1_000_000.0), failures.get());
+        assertEquals(0, failures.get());
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.springkata.load;
+
+class PlatformThreadLoadTest extends AbstractCarLoadTest {
+    @Override
+    String mode() {
+        return "platform threads";
+    }
+}
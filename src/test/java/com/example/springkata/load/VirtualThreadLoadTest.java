@@ -0,0 +1,11 @@
+package com.example.springkata.load;
+
+import org.springframework.test.context.ActiveProfiles;
+
+@ActiveProfiles("virtual-threads")
+class VirtualThreadLoadTest extends AbstractCarLoadTest {
+    @Override
+    String mode() {
+        return "virtual threads";
+    }
+}
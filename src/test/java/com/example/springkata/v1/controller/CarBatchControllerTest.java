@@ -0,0 +1,124 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.util.CarProvider.createCustomCar;
+import static com.example.springkata.v1.util.CarProvider.createDefaultCar;
+import static com.example.springkata.v1.util.ControllerPaths.*;
+import static org.hamcrest.core.Is.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.example.springkata.v1.domain.BatchItemResult;
+import com.example.springkata.v1.domain.BatchItemStatus;
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.service.CarBatchService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@DisabledInAotMode
+@WebMvcTest(CarBatchController.class)
+class CarBatchControllerTest {
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockBean
+    CarBatchService carBatchService;
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    void whenBatchIsValid_everyItemIsReported() throws Exception {
+        when(carBatchService.saveAll(any())).thenReturn(List.of(
+                new BatchItemResult(0, 1L, BatchItemStatus.CREATED, null),
+                new BatchItemResult(1, 2L, BatchItemStatus.CREATED, null)));
+        mockMvc.perform(post(POST_CARS_BATCH_V1)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createDefaultCar(), createDefaultCar()))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[1].status", is("CREATED")));
+    }
+
+    @Test
+    void whenAnyItemIsInvalid_nothingIsPersisted() throws Exception {
+        mockMvc.perform(post(POST_CARS_BATCH_V1)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createDefaultCar(), createCustomCar("Fiat", "")))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].index", is(1)))
+                .andExpect(jsonPath("$[0].status", is("INVALID")));
+        verify(carBatchService, never()).saveAll(any());
+    }
+
+    @Test
+    void whenBatchIsEmpty_responseIsBadRequest() throws Exception {
+        mockMvc.perform(post(POST_CARS_BATCH_V1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Collections.emptyList())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenBatchIsTooLarge_responseIsBadRequest() throws Exception {
+        List<Car> cars = new ArrayList<>(Collections.nCopies(CarBatchController.MAX_BATCH_SIZE + 1, createDefaultCar()));
+        mockMvc.perform(post(POST_CARS_BATCH_V1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cars)))
+                .andExpect(status().isBadRequest());
+        verify(carBatchService, never()).saveAll(any());
+    }
+
+    @Test
+    void whenUpdatedCarHasNoId_responseIsBadRequest() throws Exception {
+        mockMvc.perform(put(PUT_CARS_BATCH_V1)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(createDefaultCar()))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$[0].status", is("INVALID")));
+        verify(carBatchService, never()).updateAll(any());
+    }
+
+    @Test
+    void whenUpdatedIdIsRepeated_responseIsBadRequest() throws Exception {
+        Car car = createDefaultCar();
+        car.setId(1L);
+        mockMvc.perform(put(PUT_CARS_BATCH_V1)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(car, car))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].index", is(1)))
+                .andExpect(jsonPath("$[0].status", is("INVALID")));
+        verify(carBatchService, never()).updateAll(any());
+    }
+
+    @Test
+    void whenDeletingBatch_serviceIsCalled() throws Exception {
+        when(carBatchService.deleteAllById(any())).thenReturn(List.of(new BatchItemResult(0, 1L, BatchItemStatus.DELETED, null)));
+        mockMvc.perform(delete(DELETE_CARS_BATCH_V1)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(1L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("DELETED")));
+        verify(carBatchService, times(1)).deleteAllById(List.of(1L));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.util.CarProvider.createCustomCar;
+import static com.example.springkata.v1.util.ControllerPaths.*;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.example.springkata.v1.domain.BatchItemResult;
+import com.example.springkata.v1.domain.BatchItemStatus;
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.repository.CarRepository;
+import com.example.springkata.v1.service.CarBatchServiceImpl;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@DirtiesContext
+class CarBatchControllerTestIT {
+    MockMvc mockMvc;
+
+    @Autowired
+    WebApplicationContext wac;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+    }
+
+    @Test
+    void whenBatchSpansSeveralChunks_everyCarIsPersisted() throws Exception {
+        long initialCount = carRepository.count();
+        int size = CarBatchServiceImpl.CHUNK_SIZE * 2 + 1;
+        List<Car> cars = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            cars.add(createCustomCar("Skoda", "Octavia " + i));
+        }
+
+        List<BatchItemResult> results = perform(post(POST_CARS_BATCH_V1), cars);
+
+        assertEquals(size, results.size());
+        for (int i = 0; i < size; i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(BatchItemStatus.CREATED, results.get(i).getStatus());
+            assertNotNull(results.get(i).getId());
+        }
+        assertEquals(initialCount + size, carRepository.count());
+    }
+
+    @Test
+    void whenBatchUpdatesAndDeletes_missingIdsAreReported() throws Exception {
+        List<BatchItemResult> created = perform(post(POST_CARS_BATCH_V1),
+                List.of(createCustomCar("Seat", "Ibiza"), createCustomCar("Seat", "Leon")));
+        Long ibizaId = created.get(0).getId();
+        Long leonId = created.get(1).getId();
+
+        Car ibiza = createCustomCar("Seat", "Arona");
+        ibiza.setId(ibizaId);
+        Car missing = createCustomCar("Seat", "Toledo");
+        missing.setId(Long.MAX_VALUE);
+        List<BatchItemResult> updated = perform(put(PUT_CARS_BATCH_V1), List.of(ibiza, missing));
+        assertEquals(BatchItemStatus.UPDATED, updated.get(0).getStatus());
+        assertEquals(BatchItemStatus.NOT_FOUND, updated.get(1).getStatus());
+        assertEquals("Arona", carRepository.findById(ibizaId).orElseThrow().getModel());
+
+        List<BatchItemResult> deleted = perform(delete(DELETE_CARS_BATCH_V1), List.of(leonId, Long.MAX_VALUE));
+        assertEquals(BatchItemStatus.DELETED, deleted.get(0).getStatus());
+        assertEquals(BatchItemStatus.NOT_FOUND, deleted.get(1).getStatus());
+        assertFalse(carRepository.existsById(leonId));
+    }
+
+    private List<BatchItemResult> perform(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(request
+                        .accept(MediaType.APPLICATION_JSON)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(mvcResult.getResponse().getContentAsString(), new TypeReference<List<BatchItemResult>>() {
+        });
+    }
+}
@@ -0,0 +1,213 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.controller.CarController.NEXT_CURSOR_HEADER;
+import static com.example.springkata.v1.util.CarProvider.createCustomCar;
+import static com.example.springkata.v1.util.ControllerPaths.GET_CAR_CHANGES_V1;
+import static com.example.springkata.v1.util.ControllerPaths.GET_CAR_WITHOUT_ID_V1;
+import static com.example.springkata.v1.util.ControllerPaths.POST_CAR_V1;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.example.springkata.v1.service.CarChangeFeed;
+import com.example.springkata.v1.service.CarChangeService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@DirtiesContext
+class CarChangeControllerTestIT {
+    static final long PUSH_WAIT_MILLIS = 5_000;
+
+    MockMvc mockMvc;
+
+    @Autowired
+    WebApplicationContext wac;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @Autowired
+    CarChangeService carChangeService;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+    }
+
+    @Test
+    void whenCursorIsNegative_responseStatusIsBadRequest() throws Exception {
+        mockMvc.perform(get(GET_CAR_CHANGES_V1).queryParam("since", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenCarIsCreatedUpdatedAndDeleted_onlyThoseChangesAreReturned() throws Exception {
+        String cursor = currentCursor();
+        String location = createCar("Dacia", "Duster");
+        String carId = location.substring(GET_CAR_WITHOUT_ID_V1.length());
+        mockMvc.perform(put(location)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomCar("Dacia", "Sandero"))))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(delete(location))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get(GET_CAR_CHANGES_V1)
+                        .queryParam("since", cursor)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].carId", is(Integer.valueOf(carId))))
+                .andExpect(jsonPath("$[0].type", is("CREATED")))
+                .andExpect(jsonPath("$[1].type", is("UPDATED")))
+                .andExpect(jsonPath("$[1].model", is("Sandero")))
+                .andExpect(jsonPath("$[2].type", is("DELETED")));
+    }
+
+    @Test
+    void whenCarsAreCreatedConcurrently_aPollerFollowingTheCursorMissesNone() throws Exception {
+        int writers = 8;
+        int carsPerWriter = 10;
+        String cursor = currentCursor();
+        ExecutorService executor = Executors.newFixedThreadPool(writers);
+        List<Future<?>> writes = new ArrayList<>();
+        for (int i = 0; i < writers; i++) {
+            writes.add(executor.submit(() -> {
+                for (int j = 0; j < carsPerWriter; j++) {
+                    createCar("Lada", "Niva");
+                }
+                return null;
+            }));
+        }
+        Set<Long> seenIds = new HashSet<>();
+        boolean writing = true;
+        while (writing) {
+            writing = writes.stream().anyMatch(write -> !write.isDone());
+            // one more page after the writers finished picks up the last commits
+            MvcResult page = mockMvc.perform(get(GET_CAR_CHANGES_V1)
+                            .queryParam("since", cursor)
+                            .queryParam("limit", "1000")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            objectMapper.readTree(page.getResponse().getContentAsString())
+                    .forEach(change -> assertTrue(seenIds.add(change.get("id").asLong())));
+            cursor = page.getResponse().getHeader(NEXT_CURSOR_HEADER);
+        }
+        executor.shutdown();
+        for (Future<?> write : writes) {
+            write.get();
+        }
+
+        assertEquals(writers * carsPerWriter, seenIds.size());
+    }
+
+    @Test
+    void whenAnEarlierTransactionIsStillOpen_laterCommitsAreHeldBack() throws Exception {
+        String cursor = currentCursor();
+        CountDownLatch recorded = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> openTransaction = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+            carChangeService.recordDeleted(List.of(Long.MAX_VALUE));
+            recorded.countDown();
+            try {
+                release.await(PUSH_WAIT_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        try {
+            assertTrue(recorded.await(PUSH_WAIT_MILLIS, TimeUnit.MILLISECONDS));
+            createCar("Lada", "Vesta");
+
+            mockMvc.perform(get(GET_CAR_CHANGES_V1)
+                            .queryParam("since", cursor)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(0)));
+
+            release.countDown();
+            openTransaction.get();
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        mockMvc.perform(get(GET_CAR_CHANGES_V1)
+                        .queryParam("since", cursor)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].type", is("DELETED")))
+                .andExpect(jsonPath("$[1].type", is("CREATED")));
+    }
+
+    @Test
+    void whenSubscribedToStream_committedChangesArePushed() throws Exception {
+        MvcResult stream = mockMvc.perform(get(GET_CAR_CHANGES_V1)
+                        .queryParam("stream", "true")
+                        .queryParam("since", currentCursor()))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        createCar("Skoda", "Octavia");
+
+        long deadline = System.currentTimeMillis() + PUSH_WAIT_MILLIS;
+        while (!stream.getResponse().getContentAsString().contains("Octavia") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        String events = stream.getResponse().getContentAsString();
+        assertTrue(events.contains("event:" + CarChangeFeed.CHANGE_EVENT), events);
+        assertTrue(events.contains("Octavia"), events);
+    }
+
+    private String currentCursor() throws Exception {
+        return mockMvc.perform(get(GET_CAR_CHANGES_V1).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andReturn()
+                .getResponse()
+                .getHeader(NEXT_CURSOR_HEADER);
+    }
+
+    private String createCar(String make, String model) throws Exception {
+        return mockMvc.perform(post(POST_CAR_V1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomCar(make, model))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.LOCATION);
+    }
+}
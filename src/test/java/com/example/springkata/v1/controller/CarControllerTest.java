@@ -2,29 +2,52 @@ package com.example.springkata.v1.controller;
 
 import static com.example.springkata.v1.util.CarProvider.createDefaultCar;
 import static com.example.springkata.v1.util.ControllerPaths.*;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.core.Is.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.util.Date;
 import java.util.List;
+import java.util.function.Consumer;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.aot.DisabledInAotMode;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarCollectionVersion;
+import com.example.springkata.v1.domain.CarMakeStats;
+import com.example.springkata.v1.domain.CarModelStats;
+import com.example.springkata.v1.domain.CarStats;
+import com.example.springkata.v1.domain.CarView;
 import com.example.springkata.v1.exception.CarNotFoundException;
+import com.example.springkata.v1.exception.CarVersionMismatchException;
 import com.example.springkata.v1.service.CarService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 
+@DisabledInAotMode
 @WebMvcTest(CarController.class)
 class CarControllerTest {
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
     public static final String VALID_ID = "1";
     public static final String INVALID_ID = "-1";
     @Autowired
@@ -36,6 +59,11 @@ class CarControllerTest {
     @Autowired
     MockMvc mockMvc;
 
+    @BeforeEach
+    void setUp() {
+        when(carService.findVersion(any())).thenReturn(new CarCollectionVersion(1L, 1L, new Date(1_000_000L)));
+    }
+
     @Test
     void whenCarsDoNotExist_responseStatusIsNotFound() throws Exception {
         mockMvc.perform(get(GET_CARS_V1_PATH)
@@ -46,7 +74,7 @@ class CarControllerTest {
     @Test
     void whenFindAllIsCalled_andCarsExist_responseStatusIsOk() throws Exception {
         Car car = createDefaultCar();
-        when(carService.findAll(any())).thenReturn(List.of(car));
+        when(carService.findPage(any(), any(), anyInt())).thenReturn(List.of(CarView.from(car)));
         mockMvc.perform(get(GET_CARS_V1_PATH)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk());
@@ -55,7 +83,7 @@ class CarControllerTest {
     @Test
     void whenCarsExist_theyAreReturnedInTheResponseBody() throws Exception {
         Car car = createDefaultCar();
-        when(carService.findAll(any())).thenReturn(List.of(car));
+        when(carService.findPage(any(), any(), anyInt())).thenReturn(List.of(CarView.from(car)));
         mockMvc.perform(get(GET_CARS_V1_PATH)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -66,7 +94,7 @@ class CarControllerTest {
     @Test
     void whenMakeIsSpecified_onlyCarsOfThatMakeAreReturned() throws Exception {
         Car car = createDefaultCar();
-        when(carService.findAll(any())).thenReturn(List.of(car));
+        when(carService.findPage(any(), any(), anyInt())).thenReturn(List.of(CarView.from(car)));
         mockMvc.perform(get(GET_CARS_V1_PATH)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
@@ -74,6 +102,131 @@ class CarControllerTest {
                 .andExpect(jsonPath("$.size()", is(1)));
     }
 
+    @Test
+    void whenCollectionIsEmpty_pageIsNotLoaded() throws Exception {
+        when(carService.findVersion(any())).thenReturn(new CarCollectionVersion(0L, null, null));
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+        verify(carService, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void whenCollectionETagMatches_notModifiedIsReturnedWithoutLoadingThePage() throws Exception {
+        when(carService.findPage(any(), any(), anyInt())).thenReturn(List.of(CarView.from(createDefaultCar())));
+        String eTag = mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(carService, times(1)).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void whenPagesDiffer_theirWeakETagsDifferAndNoLastModifiedIsSent() throws Exception {
+        when(carService.findPage(any(), any(), anyInt())).thenReturn(List.of(CarView.from(createDefaultCar())));
+        String firstPage = mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String sparsePage = mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .queryParam("fields", "id")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertNotNull(firstPage);
+        assertTrue(firstPage.startsWith("W/"));
+        assertNotEquals(firstPage, sparsePage);
+    }
+
+    @Test
+    void whenCollectionChanged_fullBodyIsReturned() throws Exception {
+        when(carService.findPage(any(), any(), anyInt())).thenReturn(List.of(CarView.from(createDefaultCar())));
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"stale\"")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)));
+    }
+
+    @Test
+    void whenPageIsFull_nextCursorHeaderIsReturned() throws Exception {
+        Car car = createDefaultCar();
+        car.setId(7L);
+        when(carService.findPage(any(), any(), eq(1))).thenReturn(List.of(CarView.from(car)));
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .queryParam("limit", "1")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(CarController.NEXT_CURSOR_HEADER, is("7")));
+    }
+
+    @Test
+    void whenPageIsNotFull_nextCursorHeaderIsAbsent() throws Exception {
+        Car car = createDefaultCar();
+        car.setId(7L);
+        when(carService.findPage(any(), any(), anyInt())).thenReturn(List.of(CarView.from(car)));
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(CarController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void whenCursorIsSpecified_itIsPassedToTheService() throws Exception {
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .queryParam("after", "42")
+                        .queryParam("limit", "10")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+        verify(carService, times(1)).findPage(null, 42L, 10);
+    }
+
+    @Test
+    void whenLimitIsTooLarge_itIsCapped() throws Exception {
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .queryParam("limit", "1000000")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+        verify(carService, times(1)).findPage(null, null, CarController.MAX_PAGE_LIMIT);
+    }
+
+    @Test
+    void whenLimitIsNotPositive_responseIsBadRequest() throws Exception {
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .queryParam("limit", "0")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenStreamingIsRequested_carsAreWrittenAsNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Car> consumer = invocation.getArgument(1);
+            consumer.accept(createDefaultCar());
+            consumer.accept(createDefaultCar());
+            return null;
+        }).when(carService).streamAll(any(), any());
+
+        MvcResult mvcResult = mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .queryParam("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CarController.APPLICATION_NDJSON));
+        String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+    }
+
     @Test
     void whenCarDoesNotExist_notFoundStatusCodeIsReturned() throws Exception {
         mockMvc.perform(get(GET_CAR_BY_ID_V1, INVALID_ID)
@@ -101,6 +254,109 @@ class CarControllerTest {
                 .andExpect(jsonPath("$.make", is(createDefaultCar().getMake())));
     }
 
+    @Test
+    void whenCarETagMatches_notModifiedIsReturned() throws Exception {
+        Car car = createDefaultCar();
+        car.setId(1L);
+        car.setVersion(2L);
+        car.setUpdatedAt(new Date(1_000_000L));
+        when(carService.findById(any())).thenReturn(car);
+
+        String eTag = mockMvc.perform(get(GET_CAR_BY_ID_V1, VALID_ID)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(GET_CAR_BY_ID_V1, VALID_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void whenCarIsFoundInDifferentFormats_eachGetsItsOwnETagAndVariesByAccept() throws Exception {
+        Car car = createDefaultCar();
+        car.setId(1L);
+        car.setVersion(2L);
+        when(carService.findById(any())).thenReturn(car);
+
+        mockMvc.perform(get(GET_CAR_BY_ID_V1, VALID_ID)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"2\""));
+        String cborETag = mockMvc.perform(get(GET_CAR_BY_ID_V1, VALID_ID)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        String smileETag = mockMvc.perform(get(GET_CAR_BY_ID_V1, VALID_ID)
+                        .accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        assertEquals("\"2-cbor\"", cborETag);
+        assertNotEquals(cborETag, smileETag);
+        // a JSON validator does not turn a CBOR request into a 304
+        mockMvc.perform(get(GET_CAR_BY_ID_V1, VALID_ID)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"2\"")
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void whenAcceptPrefersCborOverWildcard_cborIsReturned() throws Exception {
+        Car car = createDefaultCar();
+        car.setId(1L);
+        car.setVersion(2L);
+        when(carService.findById(any())).thenReturn(car);
+
+        mockMvc.perform(get(GET_CAR_BY_ID_V1, VALID_ID)
+                        .header(HttpHeaders.ACCEPT, "*/*, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR));
+    }
+
+    @Test
+    void whenNoCarFormatIsAccepted_responseIsNotAcceptable() throws Exception {
+        mockMvc.perform(get(GET_CAR_BY_ID_V1, VALID_ID)
+                        .accept(MediaType.TEXT_HTML))
+                .andExpect(status().isNotAcceptable());
+        verify(carService, never()).findById(any());
+    }
+
+    @Test
+    void whenIfMatchNamesABinaryRepresentation_itsVersionIsExpected() throws Exception {
+        Car car = createDefaultCar();
+        car.setId(1L);
+        car.setVersion(3L);
+        when(carService.updateById(eq(1L), any(), eq(2L))).thenReturn(car);
+
+        mockMvc.perform(put(PUT_CAR_BY_ID_V1, VALID_ID)
+                        .header(HttpHeaders.IF_MATCH, "\"2-cbor\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDefaultCar())))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+    }
+
+    @Test
+    void whenCarIsNotModifiedSince_notModifiedIsReturned() throws Exception {
+        Car car = createDefaultCar();
+        car.setId(1L);
+        car.setUpdatedAt(new Date(1_000_000L));
+        when(carService.findById(any())).thenReturn(car);
+
+        mockMvc.perform(get(GET_CAR_BY_ID_V1, VALID_ID)
+                        .header(HttpHeaders.IF_MODIFIED_SINCE, "Thu, 01 Jan 1970 00:20:00 GMT")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+    }
+
     @Test
     void whenPostEndpointIsCalledEmptyBody_responseIsBadRequest() throws Exception {
         mockMvc.perform(post(POST_CAR_V1)
@@ -163,7 +419,7 @@ class CarControllerTest {
 
     @Test
     void whenCarToBeUpdatedIsNotFound_notFoundStatusCodeIsReturned() throws Exception {
-        when(carService.updateById(any(), any())).thenThrow(new CarNotFoundException("Could not find car with id -1"));
+        when(carService.updateById(any(), any(), any())).thenThrow(new CarNotFoundException("Could not find car with id -1"));
 
         mockMvc.perform(put(PUT_CAR_BY_ID_V1, INVALID_ID)
                         .accept(MediaType.APPLICATION_JSON)
@@ -176,20 +432,23 @@ class CarControllerTest {
     void whenCarToBeUpdatedIsFound_noContentStatusCodeIsReturned() throws Exception {
         Car car = createDefaultCar();
         car.setId(1L);
-        when(carService.updateById(any(), any())).thenReturn(car);
+        car.setVersion(1L);
+        when(carService.updateById(any(), any(), any())).thenReturn(car);
 
         mockMvc.perform(put(PUT_CAR_BY_ID_V1, VALID_ID)
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(createDefaultCar())))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, is("\"1\"")));
     }
 
     @Test
     void whenCarToBeUpdatedIsFound_locationHeaderIsReturned() throws Exception {
         Car car = createDefaultCar();
         car.setId(1L);
-        when(carService.updateById(any(), any())).thenReturn(car);
+        car.setVersion(1L);
+        when(carService.updateById(any(), any(), any())).thenReturn(car);
 
         mockMvc.perform(put(PUT_CAR_BY_ID_V1, VALID_ID)
                         .accept(MediaType.APPLICATION_JSON)
@@ -199,4 +458,118 @@ class CarControllerTest {
                 .andExpect(header().string(HttpHeaders.LOCATION, is(GET_CAR_WITHOUT_ID_V1 + VALID_ID)));
     }
 
-}
\ No newline at end of file
+    @Test
+    void whenIfMatchIsSent_expectedVersionIsPassedToTheService() throws Exception {
+        Car car = createDefaultCar();
+        car.setId(1L);
+        car.setVersion(4L);
+        when(carService.updateById(any(), any(), any())).thenReturn(car);
+
+        mockMvc.perform(put(PUT_CAR_BY_ID_V1, VALID_ID)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDefaultCar())))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, is("\"4\"")));
+        verify(carService, times(1)).updateById(eq(1L), any(), eq(3L));
+    }
+
+    @Test
+    void whenIfMatchIsNotAVersion_preconditionFailedIsReturned() throws Exception {
+        mockMvc.perform(put(PUT_CAR_BY_ID_V1, VALID_ID)
+                        .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDefaultCar())))
+                .andExpect(status().isPreconditionFailed());
+        verify(carService, never()).updateById(any(), any(), any());
+    }
+
+    @Test
+    void whenVersionIsStale_preconditionFailedIsReturned() throws Exception {
+        when(carService.updateById(any(), any(), any())).thenThrow(new CarVersionMismatchException("stale"));
+
+        mockMvc.perform(put(PUT_CAR_BY_ID_V1, VALID_ID)
+                        .header(HttpHeaders.IF_MATCH, "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createDefaultCar())))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void whenStatsAreRequested_theyAreReturnedAsCacheable() throws Exception {
+        CarMakeStats fiat = new CarMakeStats("fiat", "Fiat", 2L, new Date(1_000L), new Date(2_000L), new Date(3_000L));
+        fiat.getModels().add(new CarModelStats("fiat", "Panda", 2L));
+        when(carService.findStats()).thenReturn(new CarStats(2L, new Date(1_000L), new Date(2_000L), new Date(3_000L), List.of(fiat)));
+
+        mockMvc.perform(get(GET_CARS_STATS_V1)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=60, public"))
+                .andExpect(jsonPath("$.count", is(2)))
+                .andExpect(jsonPath("$.makes[0].make", is("Fiat")))
+                .andExpect(jsonPath("$.makes[0].makeKey").doesNotExist())
+                .andExpect(jsonPath("$.makes[0].models[0].model", is("Panda")))
+                .andExpect(jsonPath("$.makes[0].models[0].count", is(2)));
+    }
+
+    @Test
+    void whenCborIsAccepted_carsAreReturnedAsCbor() throws Exception {
+        when(carService.findPage(any(), any(), anyInt())).thenReturn(List.of(CarView.from(createDefaultCar())));
+
+        byte[] body = mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.VARY, containsString(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode cars = new CBORMapper().readTree(body);
+        assertEquals(1, cars.size());
+        assertEquals(createDefaultCar().getMake(), cars.get(0).get("make").asText());
+    }
+
+    @Test
+    void whenSmileIsAccepted_carsAreReturnedAsSmile() throws Exception {
+        when(carService.findPage(any(), any(), anyInt())).thenReturn(List.of(CarView.from(createDefaultCar())));
+
+        byte[] body = mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals(1, new SmileMapper().readTree(body).size());
+    }
+
+    @Test
+    void whenFieldsAreRequested_onlyThoseFieldsAreReturned() throws Exception {
+        when(carService.findPage(any(), any(), anyInt())).thenReturn(List.of(CarView.from(createDefaultCar())));
+
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .queryParam("fields", "make,id")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].make", is(createDefaultCar().getMake())))
+                .andExpect(jsonPath("$[0].id").hasJsonPath())
+                .andExpect(jsonPath("$[0].model").doesNotExist())
+                .andExpect(jsonPath("$[0].createdAt").doesNotExist());
+    }
+
+    @Test
+    void whenUnknownFieldIsRequested_badRequestIsReturned() throws Exception {
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .queryParam("fields", "id,price")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verify(carService, never()).findPage(any(), any(), anyInt());
+    }
+
+    @Test
+    void whenFieldsAreEmpty_badRequestIsReturned() throws Exception {
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .queryParam("fields", "")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+        verify(carService, never()).findPage(any(), any(), anyInt());
+    }
+}
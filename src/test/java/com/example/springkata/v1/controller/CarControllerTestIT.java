@@ -6,10 +6,13 @@ import static com.example.springkata.v1.util.MakeVerifier.failTestIfUnexpectedMa
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +23,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.web.context.WebApplicationContext;
 
@@ -71,9 +75,46 @@ public class CarControllerTestIT {
         failTestIfUnexpectedMake(cars, make);
     }
 
+    @Test
+    void whenPagingWithCursor_everyCarIsReturnedExactlyOnce() throws Exception {
+        Set<Long> ids = new HashSet<>();
+        String cursor = null;
+        do {
+            MockHttpServletRequestBuilder request = get(ControllerPaths.GET_CARS_V1_PATH)
+                    .queryParam("limit", "2")
+                    .accept(MediaType.APPLICATION_JSON);
+            if (cursor != null) {
+                request.queryParam("after", cursor);
+            }
+            MvcResult mvcResult = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn();
+            List<Car> cars = objectMapper.readValue(mvcResult.getResponse().getContentAsString(), new TypeReference<List<Car>>() {
+            });
+            cars.forEach(car -> assertTrue(ids.add(car.getId())));
+            cursor = mvcResult.getResponse().getHeader(CarController.NEXT_CURSOR_HEADER);
+        } while (cursor != null && ids.size() < countCars());
+        assertEquals(countCars(), ids.size());
+    }
+
+    @Test
+    void whenStreamingIsRequested_allCarsAreReturnedAsNdjson() throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get(ControllerPaths.GET_CARS_V1_PATH)
+                        .queryParam("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+        String[] lines = mvcResult.getResponse().getContentAsString().split("\n");
+        assertEquals(countCars(), lines.length);
+        for (String line : lines) {
+            assertNotNull(objectMapper.readValue(line, Car.class).getId());
+        }
+    }
+
     @Test
     void whenCarIdExists_itIsReturned() throws Exception {
-        Car car = carRepository.findAll().stream().findFirst().orElse(null);
+        Car car = findAnyCar();
         assertNotNull(car);
 
         mockMvc.perform(get(GET_CAR_BY_ID_V1, car.getId())
@@ -85,9 +126,55 @@ public class CarControllerTestIT {
                 .andExpect(jsonPath("$.model", is(car.getModel())));
     }
 
+    @Test
+    void whenCarIsUnchanged_notModifiedIsReturned() throws Exception {
+        Car car = findAnyCar();
+        assertNotNull(car);
+
+        String eTag = mockMvc.perform(get(GET_CAR_BY_ID_V1, car.getId())
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(GET_CAR_BY_ID_V1, car.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @DirtiesContext
+    void whenCollectionChanges_itsETagChanges() throws Exception {
+        String eTag = mockMvc.perform(get(ControllerPaths.GET_CARS_V1_PATH)
+                        .queryParam("make", "Fiat")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(get(ControllerPaths.GET_CARS_V1_PATH)
+                        .queryParam("make", "Fiat")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(post(POST_CAR_V1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomCar("Fiat", "Tipo"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get(ControllerPaths.GET_CARS_V1_PATH)
+                        .queryParam("make", "Fiat")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(2)));
+    }
+
     @Test
     void whenCarIdDoesNotExist_notFoundIsReturned() throws Exception {
-        Car car = carRepository.findAll().stream().findFirst().orElse(null);
+        Car car = findAnyCar();
         assertNotNull(car);
 
         mockMvc.perform(get(GET_CAR_BY_ID_V1, INVALID_ID)
@@ -158,15 +245,67 @@ public class CarControllerTestIT {
         Long id = Long.parseLong(locationHeader.substring(locationHeader.lastIndexOf("/") + 1));
 
         Car newCar = createCustomCar("Nissan", "Qashqai");
-        mockMvc.perform(put(PUT_CAR_BY_ID_V1, id)
+        String eTag = mockMvc.perform(put(PUT_CAR_BY_ID_V1, id)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(newCar)))
-                .andExpect(status().isNoContent());
+                .andExpect(status().isNoContent())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
 
         mockMvc.perform(get(locationHeader)
                         .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, is(eTag)))
                 .andExpect(jsonPath("$.make", is(newCar.getMake())))
                 .andExpect(jsonPath("$.model", is(newCar.getModel())));
+
+        // the ETag of an unconditional update is good for the next conditional one
+        mockMvc.perform(put(PUT_CAR_BY_ID_V1, id)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomCar("Nissan", "Juke"))))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @DirtiesContext
+    void whenConcurrentWritersUseTheSameETag_onlyTheFirstOneWins() throws Exception {
+        MvcResult postResult = mockMvc.perform(post(POST_CAR_V1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomCar("Honda", "Jazz"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        String locationHeader = postResult.getResponse().getHeader(HttpHeaders.LOCATION);
+        assertNotNull(locationHeader);
+        String eTag = mockMvc.perform(get(locationHeader)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        mockMvc.perform(put(locationHeader)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomCar("Honda", "Civic"))))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(put(locationHeader)
+                        .header(HttpHeaders.IF_MATCH, eTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomCar("Honda", "Accord"))))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(get(locationHeader)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.model", is("Civic")));
+    }
+
+    long countCars() {
+        return carRepository.count();
+    }
+
+    Car findAnyCar() {
+        return carRepository.findAll().stream().findFirst().orElse(null);
     }
 }
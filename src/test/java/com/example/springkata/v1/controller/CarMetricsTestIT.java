@@ -0,0 +1,75 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.util.ControllerPaths.GET_CARS_V1_PATH;
+import static com.example.springkata.v1.util.MetricNames.APPLICATION_FIRST_REQUEST_TIME;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.example.springkata.v1.service.CarService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+@SpringBootTest
+@AutoConfigureObservability
+class CarMetricsTestIT {
+    public static final String PROMETHEUS_PATH = "/actuator/prometheus";
+    MockMvc mockMvc;
+
+    @Autowired
+    WebApplicationContext wac;
+
+    @Autowired
+    CarService carService;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+    }
+
+    @Test
+    void whenCarsAreRead_serviceAndRepositoryMetricsAreScraped() throws Exception {
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+        carService.findAll("fiat");
+        carService.findAll("fiat");
+
+        mockMvc.perform(get(PROMETHEUS_PATH))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("car_service_seconds_bucket")))
+                .andExpect(content().string(containsString("car_service_result_size_rows_bucket")))
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket")))
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total")))
+                .andExpect(content().string(containsString("cache_gets_total")))
+                .andExpect(content().string(containsString("cache=\"carsByMake\"")));
+    }
+
+    @Test
+    void whenCarsAreReadSuccessfully_timeToFirstRequestIsRecorded() throws Exception {
+        mockMvc.perform(get(GET_CARS_V1_PATH)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        TimeGauge firstRequestTime = meterRegistry.find(APPLICATION_FIRST_REQUEST_TIME).timeGauge();
+        assertNotNull(firstRequestTime);
+        assertTrue(firstRequestTime.value() > 0);
+    }
+}
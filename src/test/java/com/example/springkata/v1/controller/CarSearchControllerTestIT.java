@@ -0,0 +1,79 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.util.CarProvider.createCustomCar;
+import static com.example.springkata.v1.util.ControllerPaths.GET_CARS_SEARCH_V1;
+import static com.example.springkata.v1.util.ControllerPaths.POST_CAR_V1;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest
+@DirtiesContext
+class CarSearchControllerTestIT {
+    MockMvc mockMvc;
+
+    @Autowired
+    WebApplicationContext wac;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+    }
+
+    @Test
+    void whenQueryIsPrefixOfSeededMake_matchingCarsAreReturned() throws Exception {
+        mockMvc.perform(get(GET_CARS_SEARCH_V1)
+                        .queryParam("q", "toy")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].make", is("Toyota")))
+                .andExpect(jsonPath("$[0].model", is("Hilux")));
+    }
+
+    @Test
+    void whenCarIsCreated_itCanBeFoundWithATypo() throws Exception {
+        mockMvc.perform(post(POST_CAR_V1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomCar("Mitsubishi", "Pajero"))))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get(GET_CARS_SEARCH_V1)
+                        .queryParam("q", "mitsubshi paj")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].model", is("Pajero")));
+    }
+
+    @Test
+    void whenNothingMatches_notFoundIsReturned() throws Exception {
+        mockMvc.perform(get(GET_CARS_SEARCH_V1)
+                        .queryParam("q", "zzzzzz")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void whenQueryIsBlank_badRequestIsReturned() throws Exception {
+        mockMvc.perform(get(GET_CARS_SEARCH_V1)
+                        .queryParam("q", " ")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.util.ControllerPaths.*;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.example.springkata.v1.repository.CarRepository;
+
+@SpringBootTest
+@DirtiesContext
+class CarTransferControllerTestIT {
+    MockMvc mockMvc;
+
+    @Autowired
+    WebApplicationContext wac;
+
+    @Autowired
+    CarRepository carRepository;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+    }
+
+    @Test
+    void whenNdjsonIsImported_validRowsArePersisted() throws Exception {
+        long initialCount = carRepository.count();
+        String body = "{\"make\":\"Dacia\",\"model\":\"Logan\"}\n{\"make\":\"Dacia\",\"model\":\"\"}\n{\"make\":\"Dacia\",\"model\":\"Duster\"}\n";
+
+        mockMvc.perform(post(POST_CARS_IMPORT_V1)
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.rejected", is(1)));
+
+        assertEquals(initialCount + 2, carRepository.count());
+    }
+
+    @Test
+    void whenCsvIsImported_validRowsArePersisted() throws Exception {
+        long initialCount = carRepository.count();
+
+        mockMvc.perform(post(POST_CARS_IMPORT_V1)
+                        .contentType(CarTransferController.TEXT_CSV_VALUE)
+                        .content("make,model\nLada,Niva\nLada,Samara\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.rejected", is(0)));
+
+        assertEquals(initialCount + 2, carRepository.count());
+    }
+
+    @Test
+    void whenCsvIsExported_everyCarIsWrittenAfterTheHeader() throws Exception {
+        String body = export(CarTransferController.TEXT_CSV_VALUE);
+        String[] lines = body.split("\n");
+        assertEquals("id,make,model,version,createdAt,updatedAt", lines[0]);
+        assertEquals(carRepository.count(), lines.length - 1);
+    }
+
+    @Test
+    void whenNdjsonIsExported_everyCarIsWrittenOnItsOwnLine() throws Exception {
+        String body = export(MediaType.APPLICATION_NDJSON_VALUE);
+        String[] lines = body.trim().split("\n");
+        assertEquals(carRepository.count(), lines.length);
+        assertTrue(lines[0].startsWith("{\"id\":"));
+    }
+
+    private String export(String mediaType) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(get(GET_CARS_EXPORT_V1)
+                        .accept(mediaType))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andExpect(status().isOk());
+        return mvcResult.getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.util.CarProvider.createCustomCar;
+import static com.example.springkata.v1.util.ControllerPaths.GET_CARS_V1_PATH;
+import static com.example.springkata.v1.util.ControllerPaths.POST_CAR_V1;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@SpringBootTest(properties = "cars.write-behind.enabled=true")
+@DirtiesContext
+class CarWriteBehindTestIT {
+    static final long FLUSH_WAIT_MILLIS = 5_000;
+
+    MockMvc mockMvc;
+
+    @Autowired
+    WebApplicationContext wac;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(wac).build();
+    }
+
+    @Test
+    void whenCarIsCreated_requestIsAcceptedAndCarBecomesReadable() throws Exception {
+        // warm the make cache so the flush has to invalidate it
+        mockMvc.perform(get(GET_CARS_V1_PATH).queryParam("make", "Lada").accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+
+        String location = mockMvc.perform(post(POST_CAR_V1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomCar("Lada", "Niva"))))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists(HttpHeaders.LOCATION))
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.LOCATION);
+
+        assertEquals(200, awaitStatus(location));
+        assertEquals(200, awaitStatus(GET_CARS_V1_PATH + "?make=Lada"));
+    }
+
+    private int awaitStatus(String uri) throws Exception {
+        long deadline = System.currentTimeMillis() + FLUSH_WAIT_MILLIS;
+        int status;
+        do {
+            status = mockMvc.perform(get(uri).accept(MediaType.APPLICATION_JSON)).andReturn().getResponse().getStatus();
+            if (status == 200) {
+                return status;
+            }
+            Thread.sleep(20);
+        } while (System.currentTimeMillis() < deadline);
+        return status;
+    }
+}
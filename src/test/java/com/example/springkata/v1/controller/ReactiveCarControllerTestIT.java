@@ -0,0 +1,207 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.util.CarProvider.createCustomCar;
+import static com.example.springkata.v1.util.ControllerPaths.*;
+import static com.example.springkata.v1.util.MakeVerifier.failTestIfUnexpectedMake;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.repository.ReactiveCarRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+@DirtiesContext
+class ReactiveCarControllerTestIT {
+    public static final String INVALID_ID = "-1";
+
+    @Autowired
+    WebTestClient webTestClient;
+
+    @Autowired
+    ReactiveCarRepository carRepository;
+
+    @Test
+    void whenNoMakeIsSpecified_allCarsAreReturned() {
+        Long count = carRepository.count().block();
+        webTestClient.get().uri(GET_CARS_V1_PATH)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.size()").isEqualTo(count.intValue());
+    }
+
+    @Test
+    void whenMakeIsSpecified_onlyCarsOfThatMakeAreSpecified() {
+        String make = "Fiat";
+        List<Car> cars = webTestClient.get().uri(uriBuilder -> uriBuilder.path(GET_CARS_V1_PATH).queryParam("make", make).build())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Car.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(cars);
+        assertEquals(1, cars.size());
+        failTestIfUnexpectedMake(cars, make);
+    }
+
+    @Test
+    void whenStreamingIsRequested_carsAreEmittedAsNdjson() {
+        Long count = carRepository.count().block();
+        Flux<Car> cars = webTestClient.get().uri(uriBuilder -> uriBuilder.path(GET_CARS_V1_PATH).queryParam("stream", "true").build())
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Car.class)
+                .getResponseBody();
+        StepVerifier.create(cars, 1)
+                .expectNextCount(1)
+                .thenRequest(count - 1)
+                .expectNextCount(count - 1)
+                .verifyComplete();
+    }
+
+    @Test
+    void whenCarIdExists_itIsReturned() {
+        Car car = carRepository.findAll().blockFirst();
+        assertNotNull(car);
+
+        webTestClient.get().uri(GET_CAR_BY_ID_V1, car.getId())
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody()
+                .jsonPath("$.id").isEqualTo(car.getId())
+                .jsonPath("$.make").isEqualTo(car.getMake())
+                .jsonPath("$.model").isEqualTo(car.getModel());
+    }
+
+    @Test
+    void whenCarIdDoesNotExist_notFoundIsReturned() {
+        webTestClient.get().uri(GET_CAR_BY_ID_V1, INVALID_ID)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenPostIsSuccessful_carIsPersisted() {
+        Car subaru = createCustomCar("Subaru", "Imprezza");
+
+        String locationHeader = create(subaru);
+
+        Car returnedCar = webTestClient.get().uri(locationHeader)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Car.class)
+                .returnResult()
+                .getResponseBody();
+        assertNotNull(returnedCar);
+        assertEquals(subaru.getMake(), returnedCar.getMake());
+        assertEquals(subaru.getModel(), returnedCar.getModel());
+        assertNotNull(returnedCar.getId());
+        assertNotNull(returnedCar.getCreatedAt());
+    }
+
+    @Test
+    void whenPostBodyIsInvalid_responseIsBadRequest() {
+        webTestClient.post().uri(POST_CAR_V1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(createCustomCar("", "Imprezza"))
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    @Test
+    void carIsDeletedSuccessfully() {
+        String locationHeader = create(createCustomCar("Honda", "Civic"));
+        Long id = Long.parseLong(locationHeader.substring(locationHeader.lastIndexOf("/") + 1));
+
+        webTestClient.delete().uri(DELETE_CAR_BY_ID_V1, id)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri(locationHeader)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void carIsUpdatedSuccessfully() {
+        String locationHeader = create(createCustomCar("Honda", "Civic"));
+        Long id = Long.parseLong(locationHeader.substring(locationHeader.lastIndexOf("/") + 1));
+
+        Car newCar = createCustomCar("Nissan", "Qashqai");
+        String eTag = webTestClient.put().uri(PUT_CAR_BY_ID_V1, id)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(newCar)
+                .exchange()
+                .expectStatus().isNoContent()
+                .expectHeader().exists(HttpHeaders.ETAG)
+                .returnResult(Void.class)
+                .getResponseHeaders()
+                .getETag();
+
+        webTestClient.get().uri(locationHeader)
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, eTag)
+                .expectBody()
+                .jsonPath("$.make").isEqualTo(newCar.getMake())
+                .jsonPath("$.model").isEqualTo(newCar.getModel());
+    }
+
+    @Test
+    void whenCarToBeUpdatedIsNotFound_notFoundIsReturned() {
+        webTestClient.put().uri(PUT_CAR_BY_ID_V1, INVALID_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(createCustomCar("Nissan", "Qashqai"))
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void whenVersionIsStale_preconditionFailedIsReturned() {
+        String locationHeader = create(createCustomCar("Honda", "Jazz"));
+
+        webTestClient.put().uri(locationHeader)
+                .header(HttpHeaders.IF_MATCH, "\"42\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(createCustomCar("Honda", "Civic"))
+                .exchange()
+                .expectStatus().isEqualTo(412);
+    }
+
+    private String create(Car car) {
+        String locationHeader = webTestClient.post().uri(POST_CAR_V1)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(car)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().exists(HttpHeaders.LOCATION)
+                .returnResult(Void.class)
+                .getResponseHeaders()
+                .getFirst(HttpHeaders.LOCATION);
+        assertNotNull(locationHeader);
+        return locationHeader;
+    }
+}
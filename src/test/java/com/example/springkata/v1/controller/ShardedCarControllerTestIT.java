@@ -0,0 +1,114 @@
+package com.example.springkata.v1.controller;
+
+import static com.example.springkata.v1.util.CarProvider.createCustomCar;
+import static com.example.springkata.v1.util.ControllerPaths.GET_CARS_SEARCH_V1;
+import static com.example.springkata.v1.util.ControllerPaths.GET_CAR_CHANGES_V1;
+import static com.example.springkata.v1.util.ControllerPaths.POST_CAR_V1;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.repository.ShardedCarRepository;
+import com.example.springkata.v1.service.CarSearchService;
+
+@SpringBootTest(properties = {
+        "cars.sharding.enabled=true",
+        "cars.sharding.urls=" + ShardedCarControllerTestIT.SHARD_0 + "," + ShardedCarControllerTestIT.SHARD_1 + ","
+                + ShardedCarControllerTestIT.SHARD_2,
+        "cars.sharding.worker-id=1"
+})
+class ShardedCarControllerTestIT extends CarControllerTestIT {
+    static final String SHARD_0 = "jdbc:h2:mem:carShard0";
+    static final String SHARD_1 = "jdbc:h2:mem:carShard1";
+    static final String SHARD_2 = "jdbc:h2:mem:carShard2";
+    static final List<String> SHARDS = List.of(SHARD_0, SHARD_1, SHARD_2);
+
+    @Autowired
+    ShardedCarRepository shardedCarRepository;
+
+    @Autowired
+    CarSearchService carSearchService;
+
+    @Test
+    @DirtiesContext
+    void whenCarIsCreated_itIsStoredOnlyOnItsOwningShard() throws Exception {
+        String location = mockMvc.perform(post(POST_CAR_V1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomCar("Volvo", "V70"))))
+                .andExpect(status().isCreated())
+                .andReturn()
+                .getResponse()
+                .getHeader(HttpHeaders.LOCATION);
+        Long id = Long.parseLong(location.substring(location.lastIndexOf("/") + 1));
+
+        List<Long> rowsPerShard = IntStream.range(0, SHARDS.size())
+                .mapToObj(shard -> countOnShard(shard, id))
+                .toList();
+
+        for (int shard = 0; shard < SHARDS.size(); shard++) {
+            assertEquals(shard == shardedCarRepository.shardOf(id) ? 1L : 0L, rowsPerShard.get(shard));
+        }
+    }
+
+    @Test
+    @DirtiesContext
+    void whenSearchIndexIsRebuilt_carsAreReadFromTheShards() throws Exception {
+        mockMvc.perform(post(POST_CAR_V1)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(createCustomCar("Saab", "Aero"))))
+                .andExpect(status().isCreated());
+
+        // the JPA data source is empty in sharded mode, so a rebuild from it would drop the car
+        carSearchService.rebuild();
+
+        mockMvc.perform(get(GET_CARS_SEARCH_V1)
+                        .queryParam("q", "saab aero")
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    @Test
+    void whenChangesAreRequested_notImplementedIsReturned() throws Exception {
+        mockMvc.perform(get(GET_CAR_CHANGES_V1).accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotImplemented());
+        mockMvc.perform(get(GET_CAR_CHANGES_V1).queryParam("stream", "true"))
+                .andExpect(status().isNotImplemented());
+    }
+
+    @Override
+    long countCars() {
+        return shardedCarRepository.count();
+    }
+
+    @Override
+    Car findAnyCar() {
+        return shardedCarRepository.findAll(null).stream().findFirst().orElse(null);
+    }
+
+    private Long countOnShard(int shard, Long id) {
+        // a second connection to the same in-memory database, outside the application's pools
+        SingleConnectionDataSource dataSource = new SingleConnectionDataSource(SHARDS.get(shard), "sa", "", true);
+        try {
+            return new JdbcTemplate(dataSource).queryForObject("SELECT COUNT(*) FROM car WHERE id = ?", Long.class, id);
+        } finally {
+            dataSource.destroy();
+        }
+    }
+}
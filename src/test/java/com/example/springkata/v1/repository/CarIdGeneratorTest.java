@@ -0,0 +1,64 @@
+package com.example.springkata.v1.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class CarIdGeneratorTest {
+    static final long NOW = CarIdGenerator.EPOCH_MILLIS + 1_000;
+    static final long MAX_SAFE_INTEGER = (1L << 53) - 1;
+
+    @Test
+    void whenIdsAreGeneratedInOneMillisecond_theyAreUniqueAndIncreasing() {
+        CarIdGenerator generator = new CarIdGenerator(1, () -> NOW);
+        long previous = -1;
+        for (int i = 0; i < 10_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+        }
+    }
+
+    @Test
+    void whenWorkersDiffer_idsDoNotCollide() {
+        CarIdGenerator first = new CarIdGenerator(1, () -> NOW);
+        CarIdGenerator second = new CarIdGenerator(2, () -> NOW);
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(ids.add(first.nextId()));
+            assertTrue(ids.add(second.nextId()));
+        }
+    }
+
+    @Test
+    void whenClockGoesBackwards_idsKeepIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        CarIdGenerator generator = new CarIdGenerator(0, clock::get);
+        long beforeStep = generator.nextId();
+
+        clock.set(NOW - 5_000);
+
+        assertTrue(generator.nextId() > beforeStep);
+    }
+
+    @Test
+    void whenIdsAreGeneratedAtTheEndOfTheRange_theyStaySafeForJavaScript() {
+        long lastMillis = CarIdGenerator.EPOCH_MILLIS + CarIdGenerator.MAX_TICK * CarIdGenerator.TICK_MILLIS;
+        CarIdGenerator generator = new CarIdGenerator(CarIdGenerator.MAX_WORKER_ID, () -> lastMillis);
+        for (int i = 0; i <= CarIdGenerator.SEQUENCE_MASK; i++) {
+            assertTrue(generator.nextId() <= MAX_SAFE_INTEGER);
+        }
+
+        assertThrows(IllegalStateException.class, generator::nextId);
+    }
+
+    @Test
+    void whenWorkerIdIsOutOfRange_exceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> new CarIdGenerator(CarIdGenerator.MAX_WORKER_ID + 1));
+        assertThrows(IllegalArgumentException.class, () -> new CarIdGenerator(-1));
+    }
+}
@@ -4,22 +4,42 @@ import static com.example.springkata.v1.util.CarProvider.createDefaultCar;
 import static com.example.springkata.v1.util.MakeVerifier.failTestIfUnexpectedMake;
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
+import com.example.springkata.bootstrap.CarDataGenerator;
 import com.example.springkata.bootstrap.CarInitializer;
 import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarMakeStats;
+import com.example.springkata.v1.domain.CarModelStats;
+import com.example.springkata.v1.domain.CarView;
+
+import jakarta.persistence.EntityManager;
 
 @DataJpaTest
-@Import(CarInitializer.class)
+@Import({CarInitializer.class, CarDataGenerator.class, CarJdbcRepository.class})
 class CarRepositoryTestIT {
     @Autowired
     CarRepository repository;
 
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    EntityManager entityManager;
+
+    @Autowired
+    CarJdbcRepository carJdbcRepository;
+
     @Test
     void whenApplicationStarts_databaseIsPopulated() {
         assertEquals(3, repository.count());
@@ -32,6 +52,23 @@ class CarRepositoryTestIT {
         assertNotNull(persistedCar.getId());
     }
 
+    @Test
+    void whenIdsAreReservedBesideJpaInserts_theyNeverCollide() {
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < 3 * Car.ID_ALLOCATION_SIZE; i++) {
+            assertTrue(ids.add(carJdbcRepository.nextId()));
+            assertTrue(ids.add(repository.saveAndFlush(createDefaultCar()).getId()));
+        }
+    }
+
+    @Test
+    void whenIdsAreReservedInBlocks_theyAreDistinctFromJpaIds() {
+        Set<Long> ids = new HashSet<>(carJdbcRepository.nextIds(3 * Car.ID_ALLOCATION_SIZE + 1));
+        assertEquals(3 * Car.ID_ALLOCATION_SIZE + 1, ids.size());
+        assertTrue(ids.add(repository.saveAndFlush(createDefaultCar()).getId()));
+        assertTrue(ids.add(carJdbcRepository.nextId()));
+    }
+
     @Test
     void whenCarMakeDoesNotExist_resultIsEmpty() {
         List<Car> fordCars = repository.findByMakeIgnoreCase("Ford");
@@ -45,4 +82,63 @@ class CarRepositoryTestIT {
         assertFalse(cars.isEmpty());
         failTestIfUnexpectedMake(cars, fiat);
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenCarIsInserted_makeKeyIsNormalized() {
+        Car persistedCar = repository.saveAndFlush(createDefaultCar());
+        assertEquals("toyota", persistedCar.getMakeKey());
+    }
+
+    @Test
+    void whenMakeCaseDiffers_carsAreStillFound() {
+        List<Car> cars = repository.findByMakeIgnoreCase("fIaT");
+        assertEquals(1, cars.size());
+    }
+
+    @Test
+    void whenFilteringByMake_queryPlanUsesMakeKeyIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT id, make, model FROM car WHERE make_key = 'fiat'", String.class);
+        assertNotNull(plan);
+        assertTrue(plan.toUpperCase().contains("IDX_CAR_MAKE_KEY"), plan);
+    }
+
+    @Test
+    void whenCollectionVersionIsQueried_itIsADirectIndexLookup() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT COUNT(id), MAX(id), MAX(updated_at) FROM car", String.class);
+        assertNotNull(plan);
+        assertTrue(plan.toLowerCase().contains("direct lookup"), plan);
+    }
+
+    @Test
+    void whenMakeVersionIsQueried_queryPlanUsesAMakeKeyIndex() {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT COUNT(id), MAX(id), MAX(updated_at) FROM car WHERE make_key = 'fiat'", String.class);
+        assertNotNull(plan);
+        // either make_key index turns the scan into a range scan over one make
+        assertTrue(plan.toUpperCase().contains("IDX_CAR_MAKE_KEY"), plan);
+    }
+
+    @Test
+    void whenPageIsProjected_noEntityIsManaged() {
+        entityManager.clear();
+        List<CarView> cars = repository.findViewsAfter(0L, PageRequest.ofSize(10));
+        assertEquals(3, cars.size());
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void whenStatsAreQueried_carsAreGroupedByMakeAndModel() {
+        repository.saveAndFlush(Car.builder().make("FIAT").model("Tipo").build());
+
+        List<CarMakeStats> makes = repository.findMakeStats();
+        List<CarModelStats> models = repository.findModelStats();
+
+        assertEquals(List.of("fiat", "toyota", "volkswagen"), makes.stream().map(CarMakeStats::getMakeKey).toList());
+        assertEquals(2, makes.get(0).getCount());
+        assertNotNull(makes.get(0).getFirstCreatedAt());
+        assertEquals(4, models.size());
+        assertEquals(List.of("Panda", "Tipo"), models.stream()
+                .filter(model -> model.getMakeKey().equals("fiat"))
+                .map(CarModelStats::getModel)
+                .toList());
+    }
+}
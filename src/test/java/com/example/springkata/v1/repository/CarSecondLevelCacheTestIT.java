@@ -0,0 +1,103 @@
+package com.example.springkata.v1.repository;
+
+import static com.example.springkata.v1.util.CarProvider.createCustomCar;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.example.springkata.v1.service.CarService;
+
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest
+@DirtiesContext
+class CarSecondLevelCacheTestIT {
+    @Autowired
+    CarRepository repository;
+
+    @Autowired
+    CarService carService;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void whenCarIsReadRepeatedly_onlyFirstReadReachesDatabase() {
+        Long id = repository.save(createCustomCar("Saab", "9-3")).getId();
+        Statistics statistics = resetCachesAndStatistics();
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(repository.findById(id).isPresent());
+        }
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void whenMakePageIsReadRepeatedly_onlyFirstReadReachesDatabase() {
+        Statistics statistics = resetCachesAndStatistics();
+
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(repository.findVersionByMakeKey("fiat"));
+            assertFalse(repository.findViewsByMakeKeyAfter("fiat", 0L, PageRequest.ofSize(10)).isEmpty());
+        }
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(4, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void whenCarOfMakeIsSaved_cachedMakePageIsInvalidated() {
+        resetCachesAndStatistics();
+        int before = repository.findViewsByMakeKeyAfter("volkswagen", 0L, PageRequest.ofSize(100)).size();
+        long countBefore = repository.findVersionByMakeKey("volkswagen").getCount();
+
+        repository.save(createCustomCar("Volkswagen", "Golf"));
+
+        assertEquals(before + 1, repository.findViewsByMakeKeyAfter("volkswagen", 0L, PageRequest.ofSize(100)).size());
+        assertEquals(countBefore + 1, repository.findVersionByMakeKey("volkswagen").getCount());
+    }
+
+    @Test
+    void whenCarIsUpdated_onlyItsCachedEntryIsReplaced() {
+        Long updatedId = repository.save(createCustomCar("Opel", "Astra")).getId();
+        Long otherId = repository.save(createCustomCar("Opel", "Corsa")).getId();
+        resetCachesAndStatistics();
+        assertTrue(repository.findById(updatedId).isPresent());
+        assertTrue(repository.findById(otherId).isPresent());
+
+        carService.updateById(updatedId, createCustomCar("Opel", "Insignia"), null);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        assertEquals("Insignia", repository.findById(updatedId).orElseThrow().getModel());
+        assertEquals("Corsa", repository.findById(otherId).orElseThrow().getModel());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void whenCarIsDeleted_cachedEntityIsInvalidated() {
+        Long id = repository.save(createCustomCar("Lada", "Niva")).getId();
+        resetCachesAndStatistics();
+        assertTrue(repository.findById(id).isPresent());
+
+        repository.deleteById(id);
+
+        assertTrue(repository.findById(id).isEmpty());
+    }
+
+    private Statistics resetCachesAndStatistics() {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
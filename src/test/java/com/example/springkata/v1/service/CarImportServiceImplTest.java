@@ -0,0 +1,94 @@
+package com.example.springkata.v1.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.example.springkata.v1.domain.ImportResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.validation.Validation;
+
+class CarImportServiceImplTest {
+    @Mock
+    CarBatchService carBatchService;
+    CarImportServiceImpl carImportService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        carImportService = new CarImportServiceImpl(carBatchService, new ObjectMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator());
+    }
+
+    @Test
+    void whenNdjsonSpansSeveralChunks_everyChunkIsSaved() throws Exception {
+        StringBuilder body = new StringBuilder();
+        int rows = CarBatchServiceImpl.CHUNK_SIZE * 2 + 1;
+        for (int i = 0; i < rows; i++) {
+            body.append("{\"make\":\"Toyota\",\"model\":\"Corolla ").append(i).append("\"}\n");
+        }
+
+        ImportResult result = carImportService.importNdjson(stream(body.toString()));
+
+        assertEquals(rows, result.getImported());
+        assertEquals(0, result.getRejected());
+        verify(carBatchService, times(3)).saveAll(anyList());
+    }
+
+    @Test
+    void whenNdjsonRowsAreInvalid_theyAreRejectedWithTheirLineNumber() throws Exception {
+        String body = """
+                {"make":"Toyota","model":"Hilux"}
+                {"make":"","model":"Hilux"}
+                not json
+
+                {"make":"Fiat","model":"Panda"}
+                """;
+
+        ImportResult result = carImportService.importNdjson(stream(body));
+
+        assertEquals(2, result.getImported());
+        assertEquals(2, result.getRejected());
+        assertTrue(result.getErrors().get(0).startsWith("line 2: make"));
+        assertEquals("line 3: malformed JSON", result.getErrors().get(1));
+    }
+
+    @Test
+    void whenCsvIsImported_rowsAreMappedByHeader() throws Exception {
+        String body = """
+                model,make
+                Hilux,Toyota
+                Panda,
+                Beetle,Volkswagen
+                """;
+
+        ImportResult result = carImportService.importCsv(stream(body));
+
+        assertEquals(2, result.getImported());
+        assertEquals(1, result.getRejected());
+        assertTrue(result.getErrors().get(0).startsWith("line 3: make"));
+        verify(carBatchService, times(1)).saveAll(anyList());
+    }
+
+    @Test
+    void whenNothingIsValid_nothingIsSaved() throws Exception {
+        ImportResult result = carImportService.importNdjson(stream("{\"make\":\"\",\"model\":\"\"}\n"));
+
+        assertEquals(0, result.getImported());
+        verify(carBatchService, never()).saveAll(anyList());
+    }
+
+    private InputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
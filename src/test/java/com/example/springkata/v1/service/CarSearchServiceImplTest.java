@@ -0,0 +1,190 @@
+package com.example.springkata.v1.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.beans.factory.ObjectProvider;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarChange;
+import com.example.springkata.v1.domain.CarChangeType;
+import com.example.springkata.v1.domain.CarSearchHit;
+
+class CarSearchServiceImplTest {
+    @Mock
+    CarService carService;
+    @Mock
+    ObjectProvider<CarService> carServiceProvider;
+    CarSearchServiceImpl carSearchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(carServiceProvider.getObject()).thenReturn(carService);
+        carSearchService = new CarSearchServiceImpl(carServiceProvider);
+        carSearchService.index(car(1L, "Toyota", "Hilux"));
+        carSearchService.index(car(2L, "Volkswagen", "Beetle"));
+        carSearchService.index(car(3L, "Fiat", "Panda"));
+        carSearchService.index(car(4L, "Toyota", "Corolla"));
+    }
+
+    @Test
+    void whenQueryIsPrefixOfMake_carsOfThatMakeAreFound() {
+        assertEquals(List.of(1L, 4L), ids(carSearchService.search("toy", 10)));
+    }
+
+    @Test
+    void whenQueryIsPrefixOfModel_carIsFound() {
+        assertEquals(List.of(2L), ids(carSearchService.search("BEE", 10)));
+    }
+
+    @Test
+    void whenQueryHasTypo_carIsStillFound() {
+        assertEquals(List.of(2L), ids(carSearchService.search("volksvagen", 10)));
+        assertEquals(List.of(3L), ids(carSearchService.search("pnda", 10)));
+    }
+
+    @Test
+    void whenQueryHasSeveralTokens_allOfThemMustMatch() {
+        assertEquals(List.of(4L), ids(carSearchService.search("toyota cor", 10)));
+        assertTrue(carSearchService.search("toyota panda", 10).isEmpty());
+    }
+
+    @Test
+    void whenManyCarsMatch_resultIsLimitedInIdOrder() {
+        assertEquals(List.of(1L), ids(carSearchService.search("t", 1)));
+    }
+
+    @Test
+    void whenCarIsReindexed_oldTermsNoLongerMatch() {
+        carSearchService.index(car(3L, "Fiat", "Tipo"));
+
+        assertTrue(carSearchService.search("panda", 10).isEmpty());
+        assertEquals(List.of(3L), ids(carSearchService.search("tipo", 10)));
+    }
+
+    @Test
+    void whenCarIsRemoved_itIsNoLongerFound() {
+        carSearchService.remove(1L);
+
+        assertEquals(List.of(4L), ids(carSearchService.search("toyota", 10)));
+    }
+
+    @Test
+    void whenIndexIsRebuilt_carsFromRepositoryAreAdded() {
+        streamCars(car(5L, "Honda", "Civic"));
+
+        carSearchService.rebuild();
+
+        assertEquals(List.of(5L), ids(carSearchService.search("civ", 10)));
+    }
+
+    @Test
+    void whenLastCarOfATermIsRemoved_termIsPruned() {
+        int termCount = carSearchService.termCount();
+
+        carSearchService.remove(3L);
+
+        assertEquals(termCount - 2, carSearchService.termCount());
+        assertTrue(carSearchService.search("pand", 10).isEmpty());
+    }
+
+    @Test
+    void whenEveryCarIsRemoved_noStringStaysInterned() {
+        carSearchService.index(car(3L, "Fiat", "Tipo"));
+        for (long id = 1; id <= 4; id++) {
+            carSearchService.remove(id);
+        }
+
+        assertEquals(0, carSearchService.termCount());
+        assertEquals(0, carSearchService.internedCount());
+    }
+
+    @Test
+    void whenCarIsReindexed_stringsOnlyItUsedAreReleased() {
+        int internedCount = carSearchService.internedCount();
+
+        carSearchService.index(car(3L, "Fiat", "Tipo"));
+
+        assertEquals(internedCount, carSearchService.internedCount());
+    }
+
+    @Test
+    void whenIndexIsRebuilt_carsMissingFromRepositoryAreDropped() {
+        streamCars(car(1L, "Toyota", "Hilux"));
+
+        carSearchService.rebuild();
+
+        assertEquals(List.of(1L), ids(carSearchService.search("toyota", 10)));
+        assertTrue(carSearchService.search("panda", 10).isEmpty());
+    }
+
+    @Test
+    void whenCarIsRemovedDuringRebuild_itDoesNotComeBack() {
+        // the snapshot still holds car 1, which is deleted while the rebuild streams it
+        doAnswer(invocation -> {
+            Consumer<Car> consumer = invocation.getArgument(1);
+            consumer.accept(car(1L, "Toyota", "Hilux"));
+            carSearchService.remove(1L);
+            return null;
+        }).when(carService).streamAll(isNull(), any());
+
+        carSearchService.rebuild();
+
+        assertTrue(carSearchService.search("hilux", 10).isEmpty());
+    }
+
+    @Test
+    void whenChangesAreCommitted_indexFollowsThem() {
+        carSearchService.onChangesCommitted(new CarChangesCommittedEvent(List.of(
+                CarChange.builder().carId(3L).type(CarChangeType.UPDATED).make("Fiat").model("Tipo").build(),
+                CarChange.builder().carId(1L).type(CarChangeType.DELETED).build())));
+
+        assertEquals(List.of(3L), ids(carSearchService.search("tipo", 10)));
+        assertTrue(carSearchService.search("panda", 10).isEmpty());
+        assertTrue(carSearchService.search("hilux", 10).isEmpty());
+    }
+
+    @Test
+    void whenTokenIsWithinTwoEditsOfALongTerm_itMatches() {
+        assertTrue(carSearchService.search("xyzota", 10).isEmpty());
+        assertEquals(List.of(1L, 4L), ids(carSearchService.search("toyoat", 10)));
+    }
+
+    @Test
+    void whenDistanceIsComputed_itIsBoundedByMaximum() {
+        assertEquals(1, CarSearchServiceImpl.editDistance("pnda", "panda", 2));
+        assertEquals(3, CarSearchServiceImpl.editDistance("abc", "xyzabc", 2));
+    }
+
+    private void streamCars(Car... cars) {
+        doAnswer(invocation -> {
+            Consumer<Car> consumer = invocation.getArgument(1);
+            Stream.of(cars).forEach(consumer);
+            return null;
+        }).when(carService).streamAll(isNull(), any());
+    }
+
+    private Car car(Long id, String make, String model) {
+        return Car.builder()
+                .id(id)
+                .make(make)
+                .model(model)
+                .build();
+    }
+
+    private List<Long> ids(List<CarSearchHit> hits) {
+        return hits.stream().map(CarSearchHit::getId).toList();
+    }
+}
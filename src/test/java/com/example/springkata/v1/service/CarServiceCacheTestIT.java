@@ -0,0 +1,95 @@
+package com.example.springkata.v1.service;
+
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_ID;
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_MAKE;
+import static com.example.springkata.v1.util.CarProvider.createCustomCar;
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.annotation.DirtiesContext;
+
+import com.example.springkata.v1.domain.Car;
+
+@SpringBootTest
+@DirtiesContext
+class CarServiceCacheTestIT {
+    @Autowired
+    CarService carService;
+
+    @Autowired
+    CacheManager cacheManager;
+
+    Cache carsById;
+    Cache carsByMake;
+
+    @BeforeEach
+    void setUp() {
+        carsById = cacheManager.getCache(CARS_BY_ID);
+        carsByMake = cacheManager.getCache(CARS_BY_MAKE);
+        assertNotNull(carsById);
+        assertNotNull(carsByMake);
+        carsById.clear();
+        carsByMake.clear();
+    }
+
+    @Test
+    void whenCarIsFoundById_itIsCached() {
+        Car car = carService.save(createCustomCar("Mazda", "MX-5"));
+        Car found = carService.findById(car.getId());
+        assertSame(found, carsById.get(car.getId(), Car.class));
+        assertSame(found, carService.findById(car.getId()));
+    }
+
+    @Test
+    void whenCarIsNotFoundById_nothingIsCached() {
+        assertNull(carService.findById(Long.MAX_VALUE));
+        assertNull(carsById.get(Long.MAX_VALUE));
+    }
+
+    @Test
+    void whenCarIsUpdated_cachedEntriesAreEvicted() {
+        Car car = carService.save(createCustomCar("Mazda", "MX-5"));
+        carService.findById(car.getId());
+        carService.findAll("mazda");
+        assertNotNull(carsByMake.get("make:mazda"));
+
+        carService.updateById(car.getId(), createCustomCar("Mazda", "CX-5"), null);
+
+        assertNull(carsById.get(car.getId()));
+        assertNull(carsByMake.get("make:mazda"));
+        assertEquals("CX-5", carService.findById(car.getId()).getModel());
+    }
+
+    @Test
+    void whenCarIsDeleted_cachedEntriesAreEvicted() {
+        Car car = carService.save(createCustomCar("Mazda", "MX-5"));
+        carService.findById(car.getId());
+
+        carService.deleteById(car.getId());
+
+        assertNull(carsById.get(car.getId()));
+        assertNull(carService.findById(car.getId()));
+    }
+
+    @Test
+    void whenCarIsSaved_makeListsAreEvicted() {
+        carService.findAll("fiat");
+        assertNotNull(carsByMake.get("make:fiat"));
+
+        carService.save(createCustomCar("Mazda", "MX-5"));
+
+        assertNull(carsByMake.get("make:fiat"));
+    }
+
+    @Test
+    void whenAllCarsAreListed_nothingIsCached() {
+        assertFalse(carService.findAll(null).isEmpty());
+        assertNull(carsByMake.get("*"));
+        assertNull(carsByMake.get("make:null"));
+    }
+}
@@ -1,12 +1,26 @@
 package com.example.springkata.v1.service;
 
+import static com.example.springkata.v1.util.CarProvider.createCustomCar;
 import static com.example.springkata.v1.util.CarProvider.createDefaultCar;
+import static com.example.springkata.v1.util.MetricNames.CAR_SERVICE_COALESCED_CALLS;
+import static com.example.springkata.v1.util.MetricNames.CAR_SERVICE_RESULT_SIZE;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,20 +28,38 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarChangeType;
+import com.example.springkata.v1.domain.CarMakeStats;
+import com.example.springkata.v1.domain.CarModelStats;
+import com.example.springkata.v1.domain.CarStats;
+import com.example.springkata.v1.domain.CarView;
 import com.example.springkata.v1.exception.CarNotFoundException;
+import com.example.springkata.v1.exception.CarVersionMismatchException;
 import com.example.springkata.v1.repository.CarRepository;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+
 
 class CarServiceImplTest {
     public static final String CAR_MAKE = "CAR_MAKE";
     @Mock
     CarRepository repository;
+    @Mock
+    EntityManager entityManager;
+    @Mock
+    CarChangeService carChangeService;
+    SimpleMeterRegistry meterRegistry;
     CarServiceImpl carService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
-        carService = new CarServiceImpl(repository);
+        meterRegistry = new SimpleMeterRegistry();
+        carService = new CarServiceImpl(repository, entityManager, meterRegistry, new RequestCoalescer(meterRegistry),
+                carChangeService);
     }
 
     @Test
@@ -44,6 +76,43 @@ class CarServiceImplTest {
         verify(repository, times(1)).findByMakeIgnoreCase(anyString());
     }
 
+    @Test
+    void whenCarsAreFound_resultSizeIsRecorded() {
+        when(repository.findAll()).thenReturn(List.of(createDefaultCar(), createDefaultCar()));
+        carService.findAll(null);
+        DistributionSummary summary = meterRegistry.get(CAR_SERVICE_RESULT_SIZE).tag("method", "findAll").summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void whenPageHasNoCursor_searchStartsFromTheBeginning() {
+        carService.findPage(null, null, 10);
+        verify(repository, times(1)).findViewsAfter(eq(0L), any());
+    }
+
+    @Test
+    void whenPageHasMake_carsAreFilteredAfterTheCursor() {
+        carService.findPage(CAR_MAKE, 5L, 10);
+        verify(repository, times(1)).findViewsByMakeKeyAfter(eq(Car.normalizeMake(CAR_MAKE)), eq(5L), any());
+    }
+
+    @Test
+    void whenPageLimitIsNotPositive_exceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> {
+            carService.findPage(null, null, 0);
+        });
+    }
+
+    @Test
+    void whenStreaming_everyCarIsConsumedAndDetached() {
+        when(repository.streamAll()).thenReturn(Stream.of(createDefaultCar(), createDefaultCar()));
+        List<Car> consumed = new ArrayList<>();
+        carService.streamAll(null, consumed::add);
+        assertEquals(2, consumed.size());
+        verify(entityManager, times(2)).detach(any());
+    }
+
     @Test
     void whenCarIdIsNull_exceptionIsThrown() {
         assertThrows(IllegalArgumentException.class, () -> {
@@ -71,6 +140,24 @@ class CarServiceImplTest {
         verify(repository, times(1)).save(any());
     }
 
+    @Test
+    void whenPersistingCar_creationIsRecordedForTheChangeFeed() {
+        Car persistedCar = createDefaultCar();
+        persistedCar.setId(1L);
+        when(repository.save(any())).thenReturn(persistedCar);
+
+        carService.save(createDefaultCar());
+
+        verify(carChangeService).recordAll(CarChangeType.CREATED, List.of(persistedCar));
+    }
+
+    @Test
+    void whenDeletingCar_deletionIsRecordedForTheChangeFeed() {
+        carService.deleteById(1L);
+
+        verify(carChangeService).recordDeleted(List.of(1L));
+    }
+
     @Test
     void whenDeletingNullCar_exceptionIsThrown() {
         assertThrows(IllegalArgumentException.class, () -> {
@@ -86,25 +173,158 @@ class CarServiceImplTest {
 
     @Test
     void whenCarToBeUpdatedIsNotFound_exceptionIsThrown() {
-        when(repository.findById(any())).thenReturn(Optional.empty());
+        when(repository.findLockedById(any())).thenReturn(Optional.empty());
         assertThrows(CarNotFoundException.class, () -> {
-            carService.updateById(Long.MIN_VALUE, createDefaultCar());
+            carService.updateById(Long.MIN_VALUE, createDefaultCar(), null);
         });
     }
 
     @Test
     void whenCarToBeUpdatedIsNotFound_nothingIsSaved() {
-        when(repository.findById(any())).thenReturn(Optional.empty());
+        when(repository.findLockedById(any())).thenReturn(Optional.empty());
         assertThrows(CarNotFoundException.class, () -> {
-            carService.updateById(Long.MIN_VALUE, createDefaultCar());
+            carService.updateById(Long.MIN_VALUE, createDefaultCar(), null);
         });
         verify(repository, times(0)).save(any());
+        verify(entityManager, never()).flush();
     }
 
     @Test
-    void whenCarToBeUpdatedIsFound_saveMethodIsCalled() {
-        when(repository.findById(any())).thenReturn(Optional.of(createDefaultCar()));
-        carService.updateById(Long.MIN_VALUE, createDefaultCar());
-        verify(repository, times(1)).save(any());
+    void whenCarToBeUpdatedIsFound_theLockedEntityIsChanged() {
+        Car existingCar = createDefaultCar();
+        existingCar.setId(1L);
+        existingCar.setVersion(2L);
+        when(repository.findLockedById(1L)).thenReturn(Optional.of(existingCar));
+        Car car = carService.updateById(1L, createCustomCar("Fiat", "Panda"), null);
+        assertSame(existingCar, car);
+        assertEquals("fiat", car.getMakeKey());
+        assertEquals("Panda", car.getModel());
+        verify(entityManager, times(1)).flush();
+        verify(repository, never()).save(any());
+        verify(carChangeService, times(1)).recordAll(CarChangeType.UPDATED, List.of(existingCar));
+    }
+
+    @Test
+    void whenExpectedVersionMatches_carIsUpdated() {
+        Car existingCar = createDefaultCar();
+        existingCar.setVersion(3L);
+        when(repository.findLockedById(1L)).thenReturn(Optional.of(existingCar));
+        Car car = carService.updateById(1L, createCustomCar("Fiat", "Panda"), 3L);
+        assertEquals("Panda", car.getModel());
+        verify(entityManager, times(1)).flush();
+    }
+
+    @Test
+    void whenExpectedVersionIsStale_versionMismatchIsThrown() {
+        Car existingCar = createDefaultCar();
+        existingCar.setVersion(4L);
+        when(repository.findLockedById(1L)).thenReturn(Optional.of(existingCar));
+        assertThrows(CarVersionMismatchException.class, () -> {
+            carService.updateById(1L, createDefaultCar(), 3L);
+        });
+        verify(entityManager, never()).flush();
+    }
+
+    @Test
+    void whenCarWithExpectedVersionIsMissing_notFoundIsThrown() {
+        when(repository.findLockedById(1L)).thenReturn(Optional.empty());
+        assertThrows(CarNotFoundException.class, () -> {
+            carService.updateById(1L, createDefaultCar(), 3L);
+        });
+    }
+
+    @Test
+    void whenSamePageIsRequestedConcurrently_repositoryIsQueriedOnce() throws Exception {
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findViewsByMakeKeyAfter(anyString(), eq(5L), any())).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return List.of(new CarView(6L, "Toyota", "Corolla", 0L, new Date(), new Date()));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<List<CarView>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                String make = i % 2 == 0 ? "Toyota" : "TOYOTA";
+                results.add(executor.submit(() -> carService.findPage(make, 5L, 10)));
+            }
+            awaitFollowers("findPage", callers - 1);
+            release.countDown();
+            for (Future<List<CarView>> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS).size());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(repository, times(1)).findViewsByMakeKeyAfter(anyString(), eq(5L), any());
+    }
+
+    @Test
+    void whenPagesDifferInLimit_theyAreNotCoalesced() {
+        carService.findPage(CAR_MAKE, 5L, 10);
+        carService.findPage(CAR_MAKE, 5L, 20);
+        verify(repository, times(2)).findViewsByMakeKeyAfter(eq(Car.normalizeMake(CAR_MAKE)), eq(5L), any());
+    }
+
+    @Test
+    void whenSameIdIsRequestedConcurrently_repositoryIsQueriedOnce() throws Exception {
+        int callers = 16;
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.findById(1L)).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return Optional.of(createDefaultCar());
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Car>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> carService.findById(1L)));
+            }
+            awaitFollowers("findById", callers - 1);
+            release.countDown();
+            Set<Car> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (Future<Car> result : results) {
+                Car car = result.get(5, TimeUnit.SECONDS);
+                assertEquals(createDefaultCar().getMake(), car.getMake());
+                distinct.add(car);
+            }
+            // every caller gets its own instance, so none of them shares the leader's entity
+            assertEquals(callers, distinct.size());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(repository, times(1)).findById(1L);
+    }
+
+    private void awaitFollowers(String method, int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            Counter counter = meterRegistry.find(CAR_SERVICE_COALESCED_CALLS).tag("method", method).tag("role", "follower").counter();
+            if (counter != null && counter.count() >= followers) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("Expected " + followers + " coalesced callers of " + method);
+    }
+
+    @Test
+    void whenStatsAreFound_modelsAreGroupedUnderTheirMake() {
+        CarMakeStats fiat = new CarMakeStats("fiat", "Fiat", 2L, new Date(1_000L), new Date(2_000L), new Date(5_000L));
+        CarMakeStats toyota = new CarMakeStats("toyota", "Toyota", 1L, new Date(500L), new Date(500L), null);
+        when(repository.findMakeStats()).thenReturn(List.of(fiat, toyota));
+        when(repository.findModelStats()).thenReturn(List.of(
+                new CarModelStats("fiat", "Panda", 1L),
+                new CarModelStats("fiat", "Tipo", 1L),
+                new CarModelStats("toyota", "Hilux", 1L)));
+
+        CarStats stats = carService.findStats();
+
+        assertEquals(3, stats.getCount());
+        assertEquals(new Date(500L), stats.getFirstCreatedAt());
+        assertEquals(new Date(2_000L), stats.getLastCreatedAt());
+        assertEquals(new Date(5_000L), stats.getLastUpdatedAt());
+        assertEquals(2, fiat.getModels().size());
+        assertEquals(1, toyota.getModels().size());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,248 @@
+package com.example.springkata.v1.service;
+
+import static com.example.springkata.v1.util.CacheNames.CARS_BY_MAKE;
+import static com.example.springkata.v1.util.CacheNames.CAR_QUERY_REGION;
+import static com.example.springkata.v1.util.CarProvider.createCustomCar;
+import static com.example.springkata.v1.util.CarProvider.createDefaultCar;
+import static com.example.springkata.v1.util.MetricNames.CAR_WRITE_BEHIND_BATCH_SIZE;
+import static com.example.springkata.v1.util.MetricNames.CAR_WRITE_BEHIND_DEAD_LETTERED;
+import static com.example.springkata.v1.util.MetricNames.CAR_WRITE_BEHIND_REJECTED;
+import static com.example.springkata.v1.util.MetricNames.CAR_WRITE_BEHIND_RETRIED;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.springkata.config.WriteBehindProperties;
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.domain.CarWriteFailure;
+import com.example.springkata.v1.exception.CarWriteQueueFullException;
+import com.example.springkata.v1.repository.CarJdbcRepository;
+import com.example.springkata.v1.repository.CarWriteFailureRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+class CarWriteBehindServiceImplTest {
+    @Mock
+    CarJdbcRepository carJdbcRepository;
+
+    @Mock
+    CarWriteFailureRepository carWriteFailureRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @Mock
+    EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    SessionFactory sessionFactory;
+
+    @Mock
+    Cache secondLevelCache;
+
+    @Mock
+    CarChangeService carChangeService;
+
+    SimpleMeterRegistry meterRegistry;
+    ConcurrentMapCacheManager cacheManager;
+    WriteBehindProperties properties;
+    CarWriteBehindServiceImpl writeBehindService;
+    List<List<Car>> insertedBatches;
+    AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(secondLevelCache);
+        AtomicLong ids = new AtomicLong();
+        when(carJdbcRepository.nextId()).thenAnswer(invocation -> ids.incrementAndGet());
+        insertedBatches = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> insertedBatches.add(List.copyOf(invocation.getArgument(0))))
+                .when(carJdbcRepository).insertAll(anyList());
+        meterRegistry = new SimpleMeterRegistry();
+        cacheManager = new ConcurrentMapCacheManager();
+        properties = new WriteBehindProperties();
+        properties.setMaxDelay(Duration.ofMillis(50));
+        properties.setOfferTimeout(Duration.ofMillis(10));
+        properties.setRetryBackoff(Duration.ofMillis(1));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (writeBehindService != null && writeBehindService.isRunning()) {
+            writeBehindService.stop();
+        }
+        mocks.close();
+    }
+
+    @Test
+    void whenServiceIsNotStarted_carsAreRejected() {
+        createService();
+
+        assertThrows(CarWriteQueueFullException.class, () -> writeBehindService.enqueue(createDefaultCar()));
+    }
+
+    @Test
+    void whenCarIsQueued_idAndTimestampsAreReservedUpFront() {
+        createService();
+        writeBehindService.start();
+
+        Car queuedCar = writeBehindService.enqueue(createDefaultCar());
+
+        assertEquals(1L, queuedCar.getId());
+        assertEquals("toyota", queuedCar.getMakeKey());
+        assertNotNull(queuedCar.getCreatedAt());
+        assertEquals(queuedCar.getCreatedAt(), queuedCar.getUpdatedAt());
+    }
+
+    @Test
+    void whenCarsArriveTogether_theyAreCommittedInOneBatch() {
+        properties.setMaxDelay(Duration.ofSeconds(5));
+        properties.setMaxBatchSize(3);
+        createService();
+        writeBehindService.start();
+
+        for (int i = 0; i < 3; i++) {
+            writeBehindService.enqueue(createDefaultCar());
+        }
+
+        // cache invalidation is the last step of a flush
+        verify(secondLevelCache, timeout(2_000)).evictQueryRegion(CAR_QUERY_REGION);
+        assertEquals(List.of(3), insertedBatches.stream().map(List::size).toList());
+        assertEquals(1, meterRegistry.get(CAR_WRITE_BEHIND_BATCH_SIZE).summary().count());
+    }
+
+    @Test
+    void whenBatchIsCommitted_onlyListsOfItsMakesAreEvicted() {
+        properties.setMaxDelay(Duration.ofSeconds(5));
+        properties.setMaxBatchSize(2);
+        org.springframework.cache.Cache carsByMake = cacheManager.getCache(CARS_BY_MAKE);
+        carsByMake.put("make:toyota", List.of());
+        carsByMake.put("make:fiat", List.of());
+        createService();
+        writeBehindService.start();
+
+        writeBehindService.enqueue(createDefaultCar());
+        writeBehindService.enqueue(createCustomCar("TOYOTA", "Yaris"));
+
+        verify(secondLevelCache, timeout(2_000)).evictQueryRegion(CAR_QUERY_REGION);
+        verify(secondLevelCache, never()).evictQueryRegions();
+        assertNull(carsByMake.get("make:toyota"));
+        assertNotNull(carsByMake.get("make:fiat"));
+    }
+
+    @Test
+    void whenQueueIsFull_carsAreRejected() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setMaxBatchSize(1);
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            inserting.countDown();
+            release.await();
+            insertedBatches.add(List.copyOf(invocation.getArgument(0)));
+            return null;
+        }).when(carJdbcRepository).insertAll(anyList());
+        createService();
+        writeBehindService.start();
+
+        writeBehindService.enqueue(createDefaultCar());
+        assertTrue(inserting.await(2, TimeUnit.SECONDS));
+        writeBehindService.enqueue(createDefaultCar());
+
+        assertThrows(CarWriteQueueFullException.class, () -> writeBehindService.enqueue(createDefaultCar()));
+        assertEquals(1, meterRegistry.get(CAR_WRITE_BEHIND_REJECTED).counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void whenServiceStops_queuedCarsAreFlushed() {
+        properties.setMaxDelay(Duration.ofSeconds(5));
+        properties.setMaxBatchSize(1_000);
+        createService();
+        writeBehindService.start();
+        for (int i = 0; i < 10; i++) {
+            writeBehindService.enqueue(createDefaultCar());
+        }
+
+        writeBehindService.stop();
+
+        assertFalse(writeBehindService.isRunning());
+        assertEquals(10, insertedBatches.stream().mapToInt(List::size).sum());
+        assertThrows(CarWriteQueueFullException.class, () -> writeBehindService.enqueue(createDefaultCar()));
+    }
+
+    @Test
+    void whenBatchFailsOnce_itIsRetried() {
+        properties.setMaxDelay(Duration.ofSeconds(5));
+        properties.setMaxBatchSize(2);
+        doThrow(new DataAccessResourceFailureException("connection reset"))
+                .doAnswer(invocation -> insertedBatches.add(List.copyOf(invocation.getArgument(0))))
+                .when(carJdbcRepository).insertAll(anyList());
+        createService();
+        writeBehindService.start();
+
+        writeBehindService.enqueue(createDefaultCar());
+        writeBehindService.enqueue(createDefaultCar());
+
+        verify(secondLevelCache, timeout(2_000)).evictQueryRegion(CAR_QUERY_REGION);
+        assertEquals(List.of(2), insertedBatches.stream().map(List::size).toList());
+        assertEquals(1, meterRegistry.get(CAR_WRITE_BEHIND_RETRIED).counter().count());
+        verifyNoInteractions(carWriteFailureRepository);
+    }
+
+    @Test
+    void whenOneCarKeepsFailing_onlyItIsDeadLettered() {
+        properties.setMaxDelay(Duration.ofSeconds(5));
+        properties.setMaxBatchSize(3);
+        doAnswer(invocation -> {
+            List<Car> cars = invocation.getArgument(0);
+            if (cars.stream().anyMatch(car -> car.getId() == 2L)) {
+                throw new DataIntegrityViolationException("duplicate key");
+            }
+            return insertedBatches.add(List.copyOf(cars));
+        }).when(carJdbcRepository).insertAll(anyList());
+        createService();
+        writeBehindService.start();
+
+        for (int i = 0; i < 3; i++) {
+            writeBehindService.enqueue(createDefaultCar());
+        }
+
+        verify(secondLevelCache, timeout(2_000)).evictQueryRegion(CAR_QUERY_REGION);
+        ArgumentCaptor<CarWriteFailure> failure = ArgumentCaptor.forClass(CarWriteFailure.class);
+        verify(carWriteFailureRepository).save(failure.capture());
+        assertEquals(2L, failure.getValue().getCarId());
+        assertEquals(List.of(1L, 3L), insertedBatches.stream().flatMap(List::stream).map(Car::getId).toList());
+        assertEquals(1, meterRegistry.get(CAR_WRITE_BEHIND_DEAD_LETTERED).counter().count());
+    }
+
+    private void createService() {
+        writeBehindService = new CarWriteBehindServiceImpl(carJdbcRepository, carWriteFailureRepository,
+                new TransactionTemplate(transactionManager), entityManagerFactory, cacheManager,
+                carChangeService, meterRegistry, properties);
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.springkata.v1.service;
+
+import static com.example.springkata.v1.util.MetricNames.CAR_SERVICE_COALESCED_CALLS;
+import static com.example.springkata.v1.util.MetricNames.CAR_SERVICE_COALESCED_FAN_IN;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.springkata.config.ReplicaRoutingDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RequestCoalescerTest {
+    SimpleMeterRegistry meterRegistry;
+    RequestCoalescer requestCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new RequestCoalescer(meterRegistry);
+    }
+
+    @Test
+    void whenCallsDoNotOverlap_eachCallLoads() {
+        AtomicInteger loads = new AtomicInteger();
+
+        requestCoalescer.execute("findById", 1L, loads::incrementAndGet);
+        requestCoalescer.execute("findById", 1L, loads::incrementAndGet);
+
+        assertEquals(2, loads.get());
+        assertEquals(2, meterRegistry.get(CAR_SERVICE_COALESCED_CALLS).tag("role", RequestCoalescer.LEADER).counter().count());
+        assertEquals(2, meterRegistry.get(CAR_SERVICE_COALESCED_FAN_IN).summary().totalAmount());
+    }
+
+    @Test
+    void whenKeysDiffer_callsAreNotShared() {
+        String first = requestCoalescer.execute("findById", 1L, () -> requestCoalescer.execute("findById", 2L, () -> "nested"));
+
+        assertEquals("nested", first);
+    }
+
+    @Test
+    void whenCallerIsPinnedToPrimary_itDoesNotJoinARunningLoad() {
+        String result = requestCoalescer.execute("findById", 1L, () -> {
+            try (ReplicaRoutingDataSource.PrimaryScope ignored = ReplicaRoutingDataSource.pinToPrimary()) {
+                return requestCoalescer.execute("findById", 1L, () -> "primary");
+            }
+        });
+
+        assertEquals("primary", result);
+        assertEquals(1, meterRegistry.get(CAR_SERVICE_COALESCED_CALLS).tag("role", RequestCoalescer.LEADER).counter().count());
+    }
+
+    @Test
+    void whenLoadFails_exceptionIsPropagatedAndKeyIsReleased() {
+        assertThrows(IllegalStateException.class, () -> requestCoalescer.execute("findAll", "fiat", () -> {
+            throw new IllegalStateException("boom");
+        }));
+
+        assertEquals("loaded", requestCoalescer.execute("findAll", "fiat", () -> "loaded"));
+    }
+}
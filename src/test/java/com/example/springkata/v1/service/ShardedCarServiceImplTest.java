@@ -0,0 +1,131 @@
+package com.example.springkata.v1.service;
+
+import static com.example.springkata.v1.util.CarProvider.createDefaultCar;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.example.springkata.v1.domain.Car;
+import com.example.springkata.v1.exception.CarNotFoundException;
+import com.example.springkata.v1.exception.CarVersionMismatchException;
+import com.example.springkata.v1.repository.ShardedCarRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ShardedCarServiceImplTest {
+    public static final String CAR_MAKE = "CAR_MAKE";
+    @Mock
+    ShardedCarRepository repository;
+    @Mock
+    CarSearchService carSearchService;
+    SimpleMeterRegistry meterRegistry;
+    ShardedCarServiceImpl carService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        carService = new ShardedCarServiceImpl(repository, meterRegistry, new RequestCoalescer(meterRegistry), carSearchService);
+    }
+
+    @Test
+    void whenCarMakeIsNull_allShardsAreQueried() {
+        List<Car> cars = carService.findAll(null);
+        assertEquals(0, cars.size());
+        verify(repository, times(1)).findAll(isNull());
+    }
+
+    @Test
+    void whenCarMakeIsNotNull_carsAreFilteredByMakeKey() {
+        carService.findAll(CAR_MAKE);
+        verify(repository, times(1)).findAll(Car.normalizeMake(CAR_MAKE));
+    }
+
+    @Test
+    void whenPageHasNoCursor_searchStartsFromTheBeginning() {
+        carService.findPage(null, null, 10);
+        verify(repository, times(1)).findViewsAfter(null, 0L, 10);
+    }
+
+    @Test
+    void whenPageLimitIsNotPositive_exceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> carService.findPage(null, null, 0));
+    }
+
+    @Test
+    void whenCarIdIsNull_exceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> carService.findById(null));
+    }
+
+    @Test
+    void whenCarIsNotFoundById_nullIsReturned() {
+        when(repository.findById(any())).thenReturn(Optional.empty());
+        assertNull(carService.findById(1L));
+    }
+
+    @Test
+    void whenPersistingNullCar_exceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> carService.save(null));
+    }
+
+    @Test
+    void whenPersistingCar_itIsInsertedAndIndexed() {
+        Car persistedCar = createDefaultCar();
+        persistedCar.setId(1L);
+        when(repository.insert(any())).thenReturn(persistedCar);
+
+        assertSame(persistedCar, carService.save(createDefaultCar()));
+
+        verify(carSearchService).index(persistedCar);
+    }
+
+    @Test
+    void whenDeletingNullCar_exceptionIsThrown() {
+        assertThrows(IllegalArgumentException.class, () -> carService.deleteById(null));
+    }
+
+    @Test
+    void whenDeletingCar_owningShardDeletesIt() {
+        carService.deleteById(1L);
+        verify(repository, times(1)).deleteById(1L);
+        verify(carSearchService).remove(1L);
+    }
+
+    @Test
+    void whenCarToBeUpdatedIsNotFound_exceptionIsThrown() {
+        when(repository.updateById(any(), any(), any(), any(), any())).thenReturn(Optional.empty());
+        assertThrows(CarNotFoundException.class, () -> carService.updateById(1L, createDefaultCar(), null));
+    }
+
+    @Test
+    void whenCarIsUpdatedUnconditionally_newVersionIsReturned() {
+        when(repository.updateById(eq(1L), isNull(), any(), any(), any())).thenReturn(Optional.of(7L));
+        Car car = carService.updateById(1L, createDefaultCar(), null);
+        assertEquals(7L, car.getVersion());
+    }
+
+    @Test
+    void whenExpectedVersionMatches_versionIsIncremented() {
+        when(repository.updateById(eq(1L), eq(3L), any(), any(), any())).thenReturn(Optional.of(4L));
+        Car car = carService.updateById(1L, createDefaultCar(), 3L);
+        assertEquals(4L, car.getVersion());
+        verify(repository, never()).existsById(any());
+    }
+
+    @Test
+    void whenExpectedVersionIsStale_versionMismatchIsThrown() {
+        when(repository.updateById(eq(1L), eq(3L), any(), any(), any())).thenReturn(Optional.empty());
+        when(repository.existsById(1L)).thenReturn(true);
+        assertThrows(CarVersionMismatchException.class, () -> carService.updateById(1L, createDefaultCar(), 3L));
+    }
+}